@@ -22,6 +22,7 @@
 package net.william278.uniform.bukkit;
 
 import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.ParseResults;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import com.mojang.brigadier.suggestion.Suggestion;
 import net.kyori.adventure.audience.Audience;
@@ -31,6 +32,8 @@ import net.kyori.adventure.text.format.NamedTextColor;
 import net.william278.uniform.BaseCommand;
 import net.william278.uniform.Command;
 import net.william278.uniform.Permission;
+import net.william278.uniform.PrunedTreeCache;
+import net.william278.uniform.SharedDispatcher;
 import net.william278.uniform.Uniform;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandException;
@@ -39,8 +42,8 @@ import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @SuppressWarnings("unused")
 public class BukkitCommand extends BaseCommand<CommandSender> {
@@ -66,7 +69,7 @@ public class BukkitCommand extends BaseCommand<CommandSender> {
     }
 
     @NotNull
-    Impl getImpl(@NotNull Uniform uniform) {
+    Impl getImpl(@NotNull BukkitUniform uniform) {
         return new Impl(uniform, this);
     }
 
@@ -74,12 +77,16 @@ public class BukkitCommand extends BaseCommand<CommandSender> {
 
         private static final int COMMAND_SUCCESS = com.mojang.brigadier.Command.SINGLE_SUCCESS;
 
-        private final CommandDispatcher<CommandSender> dispatcher = new CommandDispatcher<>();
+        private final BukkitUniform uniform;
+        private final CommandDispatcher<CommandSender> dispatcher;
+        private final PrunedTreeCache<CommandSender> prunedTrees;
         private final @Nullable Permission permission;
 
-        public Impl(@NotNull Uniform uniform, @NotNull BukkitCommand command) {
+        public Impl(@NotNull BukkitUniform uniform, @NotNull BukkitCommand command) {
             super(command.getName());
-            this.dispatcher.register(command.createBuilder());
+            this.uniform = uniform;
+            this.dispatcher = uniform.getSharedDispatcher().register(command);
+            this.prunedTrees = new PrunedTreeCache<>(command, dispatcher);
             this.permission = command.permission;
 
             // Setup command properties
@@ -93,15 +100,16 @@ public class BukkitCommand extends BaseCommand<CommandSender> {
 
         @NotNull
         private String getUsageText() {
-            return dispatcher.getSmartUsage(dispatcher.getRoot(), Bukkit.getConsoleSender()).values().stream()
-                    .map("/%s"::formatted).collect(Collectors.joining("\n"));
+            return String.join("\n", SharedDispatcher.getUsage(dispatcher, getName(), Bukkit.getConsoleSender()));
         }
 
         @SuppressWarnings("deprecation")
         @Override
         public boolean execute(@NotNull CommandSender commandSender, @NotNull String alias, @NotNull String[] args) {
             try {
-                return dispatcher.execute(getInput(args), commandSender) == COMMAND_SUCCESS;
+                final ParseResults<CommandSender> parse = uniform.getParseCache()
+                    .take(dispatcher, getInput(args), commandSender);
+                return dispatcher.execute(parse) >= COMMAND_SUCCESS;
             } catch (CommandSyntaxException e) {
                 getAudience(commandSender).sendMessage(Component
                     .translatable("command.context.parse_error", NamedTextColor.RED)
@@ -121,13 +129,18 @@ public class BukkitCommand extends BaseCommand<CommandSender> {
         @Override
         public List<String> tabComplete(@NotNull CommandSender sender, @NotNull String alias, @NotNull String[] args)
             throws IllegalArgumentException {
-            final String passed = getInput(args);
-            return dispatcher.getCompletionSuggestions(
-                    dispatcher.parse(passed, sender),
+            return complete(sender, getInput(args), uniform.getCompletionTimeout());
+        }
+
+        // Waits at most the timeout, so a slow suggestion provider can't stall the calling thread
+        @NotNull
+        List<String> complete(@NotNull CommandSender sender, @NotNull String passed, @Nullable Duration timeout) {
+            final CommandDispatcher<CommandSender> dispatcher = prunedTrees.getDispatcher(sender);
+            return uniform.getCompletionCache().await(sender, passed, dispatcher.getCompletionSuggestions(
+                    uniform.getParseCache().parse(dispatcher, passed, sender),
                     passed.length() // Spigot API limitation - we can only TAB complete the full text length :(
                 )
-                .thenApply(suggestions -> suggestions.getList().stream().map(Suggestion::getText).toList())
-                .join();
+                .thenApply(suggestions -> suggestions.getList().stream().map(Suggestion::getText).toList()), timeout);
         }
 
         @Override
@@ -176,6 +189,9 @@ public class BukkitCommand extends BaseCommand<CommandSender> {
             command.addPermissions(permissions);
             subCommands.forEach(command::addSubCommand);
             command.setDefaultExecutor(defaultExecutor);
+            command.setExecutionStrategy(executionStrategy);
+            command.setExecutionTimeout(executionTimeout);
+            command.setExecutionPriority(executionPriority);
             command.syntaxes.addAll(syntaxes);
             command.setExecutionScope(executionScope);
             command.setCondition(condition);
@@ -27,13 +27,29 @@ import net.kyori.adventure.platform.bukkit.BukkitAudiences;
 import net.william278.uniform.BaseCommand;
 import net.william278.uniform.Command;
 import net.william278.uniform.CommandUser;
+import net.william278.uniform.CommandUserCache;
+import net.william278.uniform.CompletionCache;
+import net.william278.uniform.ExecutionStrategy;
+import net.william278.uniform.ExecutionTracker;
+import net.william278.uniform.ParseCache;
+import net.william278.uniform.PermissionCache;
+import net.william278.uniform.SharedDispatcher;
 import net.william278.uniform.Uniform;
+import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.server.PluginDisableEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import space.arim.morepaperlib.MorePaperLib;
 import space.arim.morepaperlib.commands.CommandRegistration;
+import space.arim.morepaperlib.scheduling.GracefulScheduling;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Locale;
 import java.util.function.Function;
@@ -44,21 +60,70 @@ import java.util.function.Function;
  * @since 1.0
  */
 @SuppressWarnings("unused")
-public final class BukkitUniform implements Uniform {
+public final class BukkitUniform implements Uniform, Listener {
 
     static BukkitUniform INSTANCE;
     private static BukkitAudiences AUDIENCES;
     private static JavaPlugin PLUGIN;
 
     private final CommandRegistration registrar;
+    private final GracefulScheduling scheduling;
 
     @Getter
     @Setter
     Function<Object, CommandUser> commandUserSupplier = (user) -> new BukkitCommandUser((CommandSender) user);
 
+    @Getter
+    @Setter
+    ExecutionStrategy executionStrategy = ExecutionStrategy.cached();
+
+    // Completions are waited for without a bound unless a timeout, such as CompletionCache.DEFAULT_TIMEOUT, is set
+    @Nullable
+    @Getter
+    @Setter
+    Duration completionTimeout;
+
+    @Getter
+    private final ExecutionTracker executionTracker = new ExecutionTracker();
+
+    @Getter
+    private final CommandUserCache commandUserCache = new CommandUserCache();
+
+    @Getter
+    private final PermissionCache permissionCache = new PermissionCache();
+
+    @Getter
+    private final ParseCache<CommandSender> parseCache = new ParseCache<>();
+
+    @Getter
+    private final CompletionCache<CommandSender> completionCache = new CompletionCache<>();
+
+    @Getter
+    private final SharedDispatcher<CommandSender> sharedDispatcher = new SharedDispatcher<>();
+
+    // Runs on the server thread, which must never be interrupted
+    private final ExecutionStrategy mainThreadStrategy = new ExecutionStrategy() {
+        @Override
+        public void execute(@NotNull BaseCommand<?> command, @NotNull CommandUser user, @NotNull Runnable task) {
+            if (Bukkit.isPrimaryThread()) {
+                task.run();
+                return;
+            }
+            scheduling.globalRegionalScheduler().run(task);
+        }
+
+        @Override
+        public boolean isInterruptible() {
+            return false;
+        }
+    };
+
     private BukkitUniform(@NotNull JavaPlugin plugin) {
         PLUGIN = plugin;
-        this.registrar = new MorePaperLib(plugin).commandRegistration();
+        final MorePaperLib morePaperLib = new MorePaperLib(plugin);
+        this.registrar = morePaperLib.commandRegistration();
+        this.scheduling = morePaperLib.scheduling();
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
     }
 
     static BukkitAudiences getAudiences() {
@@ -77,6 +142,35 @@ public final class BukkitUniform implements Uniform {
         return INSTANCE != null ? INSTANCE : (INSTANCE = new BukkitUniform(plugin));
     }
 
+    /**
+     * Get the strategy for running executors on the server thread (or the global region thread on Folia)
+     *
+     * @return the main thread execution strategy
+     * @since 1.4
+     */
+    @NotNull
+    @Override
+    public ExecutionStrategy getMainThreadStrategy() {
+        return mainThreadStrategy;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(@NotNull PlayerQuitEvent event) {
+        parseCache.invalidate(event.getPlayer());
+        completionCache.invalidate(event.getPlayer());
+        onUserDisconnect(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginDisable(@NotNull PluginDisableEvent event) {
+        if (event.getPlugin() == PLUGIN) {
+            shutdown();
+            if (INSTANCE == this) {
+                INSTANCE = null;
+            }
+        }
+    }
+
     /**
      * Register a command with the server's command manager
      *
@@ -36,14 +36,19 @@ import net.md_5.bungee.api.connection.ProxiedPlayer;
 import net.md_5.bungee.api.plugin.Plugin;
 import net.md_5.bungee.api.plugin.TabExecutor;
 import net.william278.uniform.BaseCommand;
+import net.william278.uniform.BoundedSuggestionsBuilder;
 import net.william278.uniform.Command;
 import net.william278.uniform.Permission;
+import net.william278.uniform.PrunedTreeCache;
+import net.william278.uniform.SharedDispatcher;
 import net.william278.uniform.Uniform;
 import net.william278.uniform.element.ArgumentElement;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
 
 @SuppressWarnings("unused")
 public class BungeeCommand extends BaseCommand<CommandSender> {
@@ -94,7 +99,8 @@ public class BungeeCommand extends BaseCommand<CommandSender> {
 																	   @NotNull SuggestionProvider<CommandSender> suggestionProvider) {
 		ArgumentType<CommandSender> argumentType = reader -> {
 			String s = reader.readUnquotedString();
-			CommandSender source = server.getPlayer(s);
+			CommandSender source = BungeeUniform.INSTANCE != null
+					? BungeeUniform.INSTANCE.getPlayerNames().get(s) : server.getPlayer(s);
 			if (source == null) {
 				throw CommandSyntaxException.BUILT_IN_EXCEPTIONS.dispatcherUnknownArgument().createWithContext(reader);
 			}
@@ -105,8 +111,17 @@ public class BungeeCommand extends BaseCommand<CommandSender> {
 
 	public static ArgumentElement<CommandSender, CommandSender> source(@NotNull ProxyServer server, @NotNull String name) {
 		return source(server, name, (context, builder) -> {
+			if (BungeeUniform.INSTANCE != null) {
+				return BungeeUniform.INSTANCE.getPlayerNames().suggest(builder);
+			}
+			final String remaining = builder.getRemainingLowerCase();
 			for (ProxiedPlayer source : server.getPlayers()) {
-				builder.suggest(source.getName());
+				if (builder instanceof BoundedSuggestionsBuilder bounded && bounded.isTruncated()) {
+					break;
+				}
+				if (source.getName().toLowerCase(Locale.ROOT).startsWith(remaining)) {
+					builder.suggest(source.getName());
+				}
 			}
 			return builder.buildFuture();
 		});
@@ -123,27 +138,31 @@ public class BungeeCommand extends BaseCommand<CommandSender> {
 	}
 
 	@NotNull
-	Impl getImpl(@NotNull Uniform uniform) {
+	Impl getImpl(@NotNull BungeeUniform uniform) {
 		return new Impl(uniform, this);
 	}
 
 	static final class Impl extends net.md_5.bungee.api.plugin.Command implements TabExecutor {
 
-		private final CommandDispatcher<CommandSender> dispatcher = new CommandDispatcher<>();
+		private final BungeeUniform uniform;
+		private final CommandDispatcher<CommandSender> dispatcher;
+		private final PrunedTreeCache<CommandSender> prunedTrees;
 		private final @Nullable Permission permission;
 
-		public Impl(@NotNull Uniform uniform, @NotNull BungeeCommand command) {
+		public Impl(@NotNull BungeeUniform uniform, @NotNull BungeeCommand command) {
 			super(command.getName(),
 					command.permission != null ? command.permission.node() : null,
 					command.getAliases().toArray(new String[0]));
-			this.dispatcher.register(command.createBuilder());
+			this.uniform = uniform;
+			this.dispatcher = uniform.getSharedDispatcher().register(command);
+			this.prunedTrees = new PrunedTreeCache<>(command, dispatcher);
 			this.permission = command.permission;
 		}
 
 		@Override
 		public void execute(CommandSender commandSender, String[] args) {
 			try {
-				dispatcher.execute(getInput(args), commandSender);
+				dispatcher.execute(uniform.getParseCache().take(dispatcher, getInput(args), commandSender));
 			} catch (CommandSyntaxException e) {
 				getAudience(commandSender).sendMessage(Component
 						.translatable("command.context.parse_error", NamedTextColor.RED)
@@ -164,13 +183,18 @@ public class BungeeCommand extends BaseCommand<CommandSender> {
 			if (!testPermissionSilent(sender)) {
 				return List.of();
 			}
-			final String passed = getInput(args);
-			return dispatcher.getCompletionSuggestions(
-							dispatcher.parse(passed, sender),
+			return complete(sender, getInput(args), uniform.getCompletionTimeout());
+		}
+
+		// Waits at most the timeout, so a slow suggestion provider can't stall the calling thread
+		@NotNull
+		List<String> complete(@NotNull CommandSender sender, @NotNull String passed, @Nullable Duration timeout) {
+			final CommandDispatcher<CommandSender> dispatcher = prunedTrees.getDispatcher(sender);
+			return uniform.getCompletionCache().await(sender, passed, dispatcher.getCompletionSuggestions(
+							uniform.getParseCache().parse(dispatcher, passed, sender),
 							passed.length() // Spigot API limitation - we can only TAB complete the full text length :( - Also making a guess that this is the same on Bungee
 					)
-					.thenApply(suggestions -> suggestions.getList().stream().map(Suggestion::getText).toList())
-					.join();
+					.thenApply(suggestions -> suggestions.getList().stream().map(Suggestion::getText).toList()), timeout);
 		}
 
 		public boolean testPermissionSilent(@NotNull CommandSender target) {
@@ -208,6 +232,9 @@ public class BungeeCommand extends BaseCommand<CommandSender> {
 			command.addPermissions(permissions);
 			subCommands.forEach(command::addSubCommand);
 			command.setDefaultExecutor(defaultExecutor);
+			command.setExecutionStrategy(executionStrategy);
+			command.setExecutionTimeout(executionTimeout);
+			command.setExecutionPriority(executionPriority);
 			command.syntaxes.addAll(syntaxes);
 			command.setExecutionScope(executionScope);
 			command.setCondition(condition);
@@ -26,6 +26,7 @@ import net.md_5.bungee.api.CommandSender;
 import net.md_5.bungee.api.connection.ProxiedPlayer;
 import net.william278.uniform.CommandUser;
 import net.william278.uniform.Permission;
+import net.william278.uniform.PermissionTrie;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -53,10 +54,23 @@ public record BungeeCommandUser(CommandSender source) implements CommandUser {
 
 	@Override
 	public boolean checkPermission(@NotNull Permission permission) {
-		if (source.hasPermission(permission.node())) {
-			return source.hasPermission(permission.node());
+		// BungeeCord only matches exact nodes, so resolve wildcard grants from the sender's permission list first
+		final Boolean granted = getGrants().resolve(permission.node());
+		if (granted != null) {
+			return granted;
 		}
-		return permission.defaultValue().check(source.hasPermission(permission.node()));
+
+		// Nodes the list doesn't mention may still be granted by a permission plugin
+		return source.hasPermission(permission.node()) || permission.defaultValue().check(false);
+	}
+
+	@NotNull
+	private PermissionTrie getGrants() {
+		final UUID uuid = getUuid();
+		if (uuid == null || BungeeUniform.INSTANCE == null) {
+			return PermissionTrie.of(source.getPermissions());
+		}
+		return BungeeUniform.INSTANCE.getPermissionCache().getGrants(uuid, source.getPermissions());
 	}
 
 }
\ No newline at end of file
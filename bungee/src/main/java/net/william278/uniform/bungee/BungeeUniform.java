@@ -25,14 +25,30 @@ import lombok.Getter;
 import lombok.Setter;
 import net.kyori.adventure.platform.bungeecord.BungeeAudiences;
 import net.md_5.bungee.api.CommandSender;
+import net.md_5.bungee.api.connection.ProxiedPlayer;
+import net.md_5.bungee.api.event.PlayerDisconnectEvent;
+import net.md_5.bungee.api.event.PostLoginEvent;
 import net.md_5.bungee.api.plugin.Command;
+import net.md_5.bungee.api.plugin.Listener;
 import net.md_5.bungee.api.plugin.Plugin;
+import net.md_5.bungee.event.EventHandler;
+import net.md_5.bungee.event.EventPriority;
 import net.william278.uniform.BaseCommand;
 import net.william278.uniform.CommandUser;
+import net.william278.uniform.CommandUserCache;
+import net.william278.uniform.CompletionCache;
+import net.william278.uniform.ExecutionStrategy;
+import net.william278.uniform.ExecutionTracker;
+import net.william278.uniform.ParseCache;
+import net.william278.uniform.PermissionCache;
+import net.william278.uniform.PlayerNameIndex;
+import net.william278.uniform.SharedDispatcher;
 import net.william278.uniform.Uniform;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Field;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Map;
 import java.util.function.Function;
@@ -43,18 +59,53 @@ import java.util.function.Function;
  * @since 1.3.3
  */
 @SuppressWarnings("unused")
-public final class BungeeUniform implements Uniform {
+public final class BungeeUniform implements Uniform, Listener {
 	private static Plugin PLUGIN;
 	static BungeeUniform INSTANCE;
 	private static BungeeAudiences AUDIENCES;
 
-
 	@Getter
 	@Setter
 	Function<Object, CommandUser> commandUserSupplier = (user) -> new BungeeCommandUser((CommandSender) user);
 
+	@Getter
+	@Setter
+	ExecutionStrategy executionStrategy = ExecutionStrategy.cached();
+
+	// Completions are waited for without a bound unless a timeout, such as CompletionCache.DEFAULT_TIMEOUT, is set
+	@Nullable
+	@Getter
+	@Setter
+	Duration completionTimeout;
+
+	@Getter
+	private final ExecutionTracker executionTracker = new ExecutionTracker();
+
+	@Getter
+	private final CommandUserCache commandUserCache = new CommandUserCache();
+
+	@Getter
+	private final PermissionCache permissionCache = new PermissionCache();
+
+	@Getter
+	private final ParseCache<CommandSender> parseCache = new ParseCache<>();
+
+	@Getter
+	private final CompletionCache<CommandSender> completionCache = new CompletionCache<>();
+
+	@Getter
+	private final SharedDispatcher<CommandSender> sharedDispatcher = new SharedDispatcher<>();
+
+	@Getter
+	private final PlayerNameIndex<ProxiedPlayer> playerNames = new PlayerNameIndex<>(ProxiedPlayer::getName);
+
 	private BungeeUniform(@NotNull Plugin plugin) {
 		PLUGIN = plugin;
+		plugin.getProxy().getPluginManager().registerListener(plugin, this);
+		this.playerNames.addAll(plugin.getProxy().getPlayers());
+
+		// BungeeCord has no plugin disable event, so drain executions as the proxy exits
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> shutdown(DEFAULT_DRAIN_TIMEOUT), "uniform-shutdown"));
 	}
 
 	static BungeeAudiences getAudiences() {
@@ -73,6 +124,19 @@ public final class BungeeUniform implements Uniform {
 		return INSTANCE != null ? INSTANCE : (INSTANCE = new BungeeUniform(server));
 	}
 
+	@EventHandler(priority = EventPriority.HIGHEST)
+	public void onPlayerDisconnect(@NotNull PlayerDisconnectEvent event) {
+		parseCache.invalidate(event.getPlayer());
+		completionCache.invalidate(event.getPlayer());
+		playerNames.remove(event.getPlayer());
+		onUserDisconnect(event.getPlayer().getUniqueId());
+	}
+
+	@EventHandler(priority = EventPriority.LOWEST)
+	public void onPostLogin(@NotNull PostLoginEvent event) {
+		playerNames.add(event.getPlayer());
+	}
+
 	/**
 	 * Register a command with the server's command manager
 	 *
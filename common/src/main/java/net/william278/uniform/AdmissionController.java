@@ -0,0 +1,266 @@
+/*
+ * This file is part of Uniform, licensed under the GNU General Public License v3.0.
+ *
+ *  Copyright (c) Tofaa2
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.william278.uniform;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An {@link ExecutionStrategy} that bounds the number of in-flight (queued or running) executions, globally and per
+ * command, before handing them to a delegate strategy
+ *
+ * @since 1.4
+ */
+@SuppressWarnings("unused")
+public final class AdmissionController implements ExecutionStrategy {
+
+    private final ExecutionStrategy delegate;
+    private final int maxInFlight;
+    private final int maxInFlightPerCommand;
+    private final RejectionPolicy rejectionPolicy;
+    private final Component busyMessage;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<BaseCommand<?>, AtomicInteger> commandInFlight = new ConcurrentHashMap<>();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private AdmissionController(@NotNull Builder builder) {
+        this.delegate = builder.delegate;
+        this.maxInFlight = builder.maxInFlight;
+        this.maxInFlightPerCommand = builder.maxInFlightPerCommand;
+        this.rejectionPolicy = builder.rejectionPolicy;
+        this.busyMessage = builder.busyMessage;
+    }
+
+    @NotNull
+    public static Builder builder(@NotNull ExecutionStrategy delegate) {
+        return new Builder(delegate);
+    }
+
+    @Override
+    public void execute(@NotNull BaseCommand<?> command, @NotNull CommandUser user, @NotNull Runnable task) {
+        final AtomicInteger perCommand = commandInFlight.computeIfAbsent(command, c -> new AtomicInteger());
+        if (!acquire(inFlight, maxInFlight)) {
+            reject(user, task);
+            return;
+        }
+        if (!acquire(perCommand, maxInFlightPerCommand)) {
+            inFlight.decrementAndGet();
+            reject(user, task);
+            return;
+        }
+
+        peakInFlight.accumulateAndGet(inFlight.get(), Math::max);
+        final Runnable release = release(perCommand);
+        try {
+            // Permits are held until the execution finishes, including any asynchronous work
+            delegate.execute(command, user, ExecutionTask.whenDone(task, release));
+            admitted.incrementAndGet();
+        } catch (RejectedExecutionException e) {
+            // The rejection policy only applies to our own limits; the delegate's rejections go back to the caller
+            release.run();
+            rejected.incrementAndGet();
+            throw e;
+        }
+    }
+
+    private static boolean acquire(@NotNull AtomicInteger counter, int limit) {
+        if (counter.incrementAndGet() > limit) {
+            counter.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    @NotNull
+    private Runnable release(@NotNull AtomicInteger perCommand) {
+        final AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                perCommand.decrementAndGet();
+                inFlight.decrementAndGet();
+            }
+        };
+    }
+
+    private void reject(@NotNull CommandUser user, @NotNull Runnable task) {
+        rejected.incrementAndGet();
+        switch (rejectionPolicy) {
+            case RUN_ON_CALLER -> {
+                task.run();
+                return;
+            }
+            case REPLY_BUSY -> user.getAudience().sendMessage(busyMessage);
+            case DROP -> {
+            }
+        }
+        throw new RejectedExecutionException("Command execution rejected by admission control");
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public boolean isOwned() {
+        return delegate.isOwned();
+    }
+
+    @Override
+    public boolean isInterruptible() {
+        return delegate.isInterruptible();
+    }
+
+    @Override
+    public boolean isInterruptible(@NotNull BaseCommand<?> command) {
+        return delegate.isInterruptible(command);
+    }
+
+    /**
+     * Get the number of executions currently queued or running
+     *
+     * @return the in-flight execution count
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Get the number of executions of a command currently queued or running
+     *
+     * @param command the command
+     * @return the in-flight execution count for the command
+     */
+    public int getInFlight(@NotNull BaseCommand<?> command) {
+        final AtomicInteger count = commandInFlight.get(command);
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * Get the highest number of in-flight executions seen so far
+     *
+     * @return the peak in-flight execution count
+     */
+    public int getPeakInFlight() {
+        return peakInFlight.get();
+    }
+
+    /**
+     * Get the total number of executions handed to the delegate strategy
+     *
+     * @return the admitted execution count
+     */
+    public long getAdmitted() {
+        return admitted.get();
+    }
+
+    /**
+     * Get the total number of executions turned away, including those run on the caller
+     *
+     * @return the rejected execution count
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * What to do with an execution once a limit has been reached
+     */
+    public enum RejectionPolicy {
+        /**
+         * Silently discard the execution
+         */
+        DROP,
+        /**
+         * Discard the execution and tell the user the server is busy
+         */
+        REPLY_BUSY,
+        /**
+         * Run the execution on the thread that dispatched the command
+         */
+        RUN_ON_CALLER
+    }
+
+    public static final class Builder {
+
+        private final ExecutionStrategy delegate;
+        private int maxInFlight = Integer.MAX_VALUE;
+        private int maxInFlightPerCommand = Integer.MAX_VALUE;
+        private RejectionPolicy rejectionPolicy = RejectionPolicy.REPLY_BUSY;
+        private Component busyMessage = Component.text(
+                "The server is busy. Please try again in a moment.", NamedTextColor.RED
+        );
+
+        private Builder(@NotNull ExecutionStrategy delegate) {
+            this.delegate = delegate;
+        }
+
+        @NotNull
+        public Builder setMaxInFlight(int maxInFlight) {
+            this.maxInFlight = requirePositive(maxInFlight);
+            return this;
+        }
+
+        @NotNull
+        public Builder setMaxInFlightPerCommand(int maxInFlightPerCommand) {
+            this.maxInFlightPerCommand = requirePositive(maxInFlightPerCommand);
+            return this;
+        }
+
+        @NotNull
+        public Builder setRejectionPolicy(@NotNull RejectionPolicy rejectionPolicy) {
+            this.rejectionPolicy = rejectionPolicy;
+            return this;
+        }
+
+        @NotNull
+        public Builder setBusyMessage(@NotNull Component busyMessage) {
+            this.busyMessage = busyMessage;
+            return this;
+        }
+
+        @NotNull
+        public AdmissionController build() {
+            return new AdmissionController(this);
+        }
+
+        private static int requirePositive(int limit) {
+            if (limit < 1) {
+                throw new IllegalArgumentException("In-flight limits must be at least 1");
+            }
+            return limit;
+        }
+
+    }
+
+}
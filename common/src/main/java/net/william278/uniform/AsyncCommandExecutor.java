@@ -0,0 +1,56 @@
+/*
+ * This file is part of Uniform, licensed under the GNU General Public License v3.0.
+ *
+ *  Copyright (c) Tofaa2
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.william278.uniform;
+
+import com.mojang.brigadier.context.CommandContext;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link CommandExecutor} that completes asynchronously with a Brigadier result code
+ * <p>
+ * The result is reported to Brigadier when the future has already completed by the time the executor returns (e.g.
+ * when running on the caller thread); otherwise {@link com.mojang.brigadier.Command#SINGLE_SUCCESS} is reported and
+ * the eventual result is published to the {@link ExecutionTracker}'s listeners. The execution stays in flight, and
+ * subject to its timeout, until the future completes; the future is cancelled if the execution is.
+ *
+ * @param <S> the command source type
+ * @since 1.4
+ */
+@FunctionalInterface
+public interface AsyncCommandExecutor<S> extends CommandExecutor<S> {
+
+    @NotNull
+    CompletableFuture<Integer> executeAsync(@NotNull CommandContext<S> context);
+
+    /**
+     * Start the execution without waiting for it to complete
+     *
+     * @param context the command context
+     */
+    @Override
+    default void execute(@NotNull CommandContext<S> context) {
+        executeAsync(context);
+    }
+
+}
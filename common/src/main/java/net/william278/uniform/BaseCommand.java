@@ -26,6 +26,7 @@ import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import com.mojang.brigadier.suggestion.SuggestionProvider;
 import com.mojang.brigadier.tree.LiteralCommandNode;
+import lombok.AccessLevel;
 import lombok.Getter;
 import net.william278.uniform.element.ArgumentElement;
 import net.william278.uniform.element.CommandElement;
@@ -33,6 +34,7 @@ import net.william278.uniform.element.LiteralElement;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -42,17 +44,54 @@ import java.util.function.Predicate;
 @SuppressWarnings("unused")
 public abstract class BaseCommand<S> {
 
+    /**
+     * @deprecated Shared by every plugin shading Uniform into the same classloader, and no longer used to run
+     * executors; each {@link Uniform} now owns its {@link ExecutionStrategy}
+     */
+    @Deprecated(since = "1.4")
     protected static final ExecutorService CACHED_EXECUTOR = Executors.newCachedThreadPool();
 
+    // One parser and suggestion index per enum, so equal enum arguments are equal elements and can share nodes
+    private static final ClassValue<EnumArgument<?>> ENUM_ARGUMENTS = new ClassValue<>() {
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        protected EnumArgument<?> computeValue(@NotNull Class<?> type) {
+            return EnumArgument.of((Class) type);
+        }
+    };
+
     private final String name;
     private final String description;
     private final List<String> aliases;
-    protected final List<CommandSyntax<S>> syntaxes = new ArrayList<>();
-    protected final List<BaseCommand<S>> subCommands = new ArrayList<>();
+    protected final List<CommandSyntax<S>> syntaxes = new TrackedList<>(this);
+    protected final List<BaseCommand<S>> subCommands = new TrackedList<>(this);
+    @Getter(AccessLevel.NONE)
+    private final List<Command.ExecutionScope> scopes = new ArrayList<>();
+    @Getter(AccessLevel.NONE)
+    private final List<Permission> permissions = new ArrayList<>();
+    @Getter(AccessLevel.NONE)
+    private final List<Predicate<S>> conditions = new ArrayList<>();
     @Nullable
     private Predicate<S> condition;
     @Nullable
+    @Getter(AccessLevel.NONE)
+    private Permission[] permissionBatch;
+    @Nullable
+    @Getter(AccessLevel.NONE)
+    private BaseCommand<?> parent;
+    @Getter(AccessLevel.NONE)
+    private boolean dirty = true;
+    @Nullable
+    @Getter(AccessLevel.NONE)
+    private LiteralCommandNode<S> built;
+    @Nullable
     private CommandExecutor<S> defaultExecutor;
+    @Nullable
+    private ExecutionStrategy executionStrategy;
+    @Nullable
+    private Duration executionTimeout;
+    @Nullable
+    private ExecutionPriority executionPriority;
 
     public BaseCommand(@NotNull Command command) {
         this.name = command.getName();
@@ -76,19 +115,26 @@ public abstract class BaseCommand<S> {
 
     @NotNull
     public CommandUser getUser(@NotNull Object user) {
-        return getUniform().getCommandUserSupplier().apply(user);
+        return getUniform().getUser(user);
     }
 
+    /**
+     * Set the custom condition, replacing any custom conditions added before. Permissions and the execution scope are
+     * kept
+     *
+     * @param condition the condition, or {@code null} to clear custom conditions
+     */
     public void setCondition(@Nullable Predicate<S> condition) {
-        this.condition = condition;
+        this.conditions.clear();
+        if (condition != null) {
+            this.conditions.add(condition);
+        }
+        this.compileCondition();
     }
 
     public void addCondition(@NotNull Predicate<S> condition) {
-        if (this.condition == null) {
-            this.condition = condition;
-        } else {
-            this.condition = this.condition.and(condition);
-        }
+        this.conditions.add(condition);
+        this.compileCondition();
     }
 
     public void setPermission(@NotNull Permission permission) {
@@ -96,13 +142,17 @@ public abstract class BaseCommand<S> {
     }
 
     public void addPermissions(@NotNull Permission... permission) {
-        for (Permission singlePerm : permission) {
-            this.addCondition(this.createPermission(singlePerm));
-        }
+        this.addPermissions(List.of(permission));
     }
 
     public void addPermissions(@NotNull List<Permission> permissionList) {
-        permissionList.forEach(perm -> this.addCondition(this.createPermission(perm)));
+        this.permissions.addAll(permissionList);
+        this.compileCondition();
+    }
+
+    @NotNull
+    public List<Permission> getPermissions() {
+        return Collections.unmodifiableList(permissions);
     }
 
     public void addPermissions(@NotNull String... permission) {
@@ -116,21 +166,70 @@ public abstract class BaseCommand<S> {
     }
 
     public void setExecutionScope(@NotNull Command.ExecutionScope scope) {
-        final Predicate<S> predicate = scope.toPredicate(this);
-        if (predicate != null) {
-            this.addCondition(predicate);
+        if (scope != Command.ExecutionScope.ALL) {
+            this.scopes.add(scope);
+            this.compileCondition();
         }
     }
 
+    private void compileCondition() {
+        this.condition = CompiledCondition.compile(this, scopes, permissions, conditions);
+        this.markDirty();
+    }
+
+    // The distinct permissions used by the command tree this command was built in, checked in one batch
+    @Nullable
+    Permission[] getPermissionBatch() {
+        return permissionBatch;
+    }
+
+    void setPermissionBatch(@Nullable Permission[] permissionBatch) {
+        this.permissionBatch = permissionBatch;
+    }
+
     public void setDefaultExecutor(@Nullable CommandExecutor<S> executor) {
         this.defaultExecutor = executor;
+        this.markDirty();
+    }
+
+    public void setExecutionStrategy(@Nullable ExecutionStrategy executionStrategy) {
+        this.executionStrategy = executionStrategy;
+    }
+
+    @NotNull
+    public ExecutionStrategy getExecutionStrategy() {
+        return executionStrategy != null ? executionStrategy : getUniform().getExecutionStrategy();
+    }
+
+    public void setExecutionTimeout(@Nullable Duration executionTimeout) {
+        this.executionTimeout = executionTimeout;
+    }
+
+    public void setExecutionPriority(@Nullable ExecutionPriority executionPriority) {
+        this.executionPriority = executionPriority;
+    }
+
+    public void addSyntax(@NotNull CommandSyntax<S> syntax) {
+        this.syntaxes.add(syntax);
     }
 
     @SafeVarargs
     public final void addConditionalSyntax(@Nullable Predicate<S> condition, @NotNull CommandExecutor<S> executor,
                                            @NotNull CommandElement<S>... elements) {
-        var syntax = new CommandSyntax<>(condition, executor, List.of(elements));
-        this.syntaxes.add(syntax);
+        this.addConditionalSyntax(condition, null, executor, elements);
+    }
+
+    @SafeVarargs
+    public final void addConditionalSyntax(@Nullable Predicate<S> condition, @Nullable ExecutionStrategy strategy,
+                                           @NotNull CommandExecutor<S> executor,
+                                           @NotNull CommandElement<S>... elements) {
+        this.addSyntax(new CommandSyntax<>(condition, executor, List.of(elements), strategy));
+    }
+
+    @SafeVarargs
+    public final void addSyntax(@NotNull ExecutionStrategy strategy, @NotNull CommandExecutor<S> executor,
+                                @NotNull CommandElement<S>... elements) {
+        this.addConditionalSyntax(null, strategy, executor, elements);
     }
 
     @SafeVarargs
@@ -176,14 +275,37 @@ public abstract class BaseCommand<S> {
         return permission.toPredicate(this);
     }
 
+    /**
+     * Build the command's node tree. The tree is built once and reused until the command, its syntaxes or its
+     * sub-commands change
+     *
+     * @return the command node
+     */
     @NotNull
     public LiteralCommandNode<S> build() {
-        return Graph.create(this).build();
+        if (this.built == null || this.dirty) {
+            this.built = Graph.create(this).build();
+            this.markClean();
+        }
+        return this.built;
     }
 
     @NotNull
     public LiteralArgumentBuilder<S> createBuilder() {
-        return Graph.create(this).literal(this.name);
+        return Graph.literal(this.name, this.build());
+    }
+
+    // A dirty command always has dirty ancestors, so marking can stop at the first one that already is
+    private void markDirty() {
+        for (BaseCommand<?> command = this; command != null && !command.dirty; command = command.parent) {
+            command.dirty = true;
+        }
+    }
+
+    // Building a command builds its whole subtree
+    private void markClean() {
+        this.dirty = false;
+        this.subCommands.forEach(BaseCommand::markClean);
     }
 
     @NotNull
@@ -268,22 +390,79 @@ public abstract class BaseCommand<S> {
     }
 
     @NotNull
+    @SuppressWarnings("unchecked")
     public static <S, T extends Enum<T>> ArgumentElement<S, T> enumArgument(@NotNull String name, @NotNull Class<T> enumClass) {
-        return new ArgumentElement<>(name, reader -> {
-            String enumName = reader.readString();
-            T enumValue;
-            try {
-                enumValue = Enum.valueOf(enumClass, enumName);
-            } catch (IllegalArgumentException e) {
-                throw CommandSyntaxException.BUILT_IN_EXCEPTIONS.dispatcherUnknownArgument().createWithContext(reader);
-            }
-            return enumValue;
-        }, (context, builder) -> {
-            for (T enumValue : enumClass.getEnumConstants()) {
-                builder.suggest(enumValue.name());
+        final EnumArgument<T> argument = (EnumArgument<T>) ENUM_ARGUMENTS.get(enumClass);
+        return new ArgumentElement<>(name, argument.type(), (SuggestionProvider<S>) argument.provider());
+    }
+
+    private record EnumArgument<T extends Enum<T>>(@NotNull ArgumentType<T> type,
+                                                   @NotNull SuggestionProvider<?> provider) {
+
+        @NotNull
+        private static <T extends Enum<T>> EnumArgument<T> of(@NotNull Class<T> enumClass) {
+            return new EnumArgument<>(reader -> {
+                String enumName = reader.readString();
+                T enumValue;
+                try {
+                    enumValue = Enum.valueOf(enumClass, enumName);
+                } catch (IllegalArgumentException e) {
+                    throw CommandSyntaxException.BUILT_IN_EXCEPTIONS.dispatcherUnknownArgument()
+                            .createWithContext(reader);
+                }
+                return enumValue;
+            }, SuggestionIndex.of(enumClass).provider());
+        }
+
+    }
+
+    // Marks its command dirty on every change, including those made to the list directly, and adopts sub-commands
+    private static final class TrackedList<E> extends AbstractList<E> {
+
+        private final List<E> elements = new ArrayList<>();
+        private final BaseCommand<?> owner;
+
+        private TrackedList(@NotNull BaseCommand<?> owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public E get(int index) {
+            return elements.get(index);
+        }
+
+        @Override
+        public int size() {
+            return elements.size();
+        }
+
+        @Override
+        public E set(int index, E element) {
+            final E replaced = elements.set(index, element);
+            changed(element);
+            return replaced;
+        }
+
+        @Override
+        public void add(int index, E element) {
+            elements.add(index, element);
+            changed(element);
+        }
+
+        @Override
+        public E remove(int index) {
+            final E removed = elements.remove(index);
+            owner.markDirty();
+            return removed;
+        }
+
+        private void changed(E element) {
+            if (element instanceof BaseCommand<?> command) {
+                command.parent = owner;
             }
-            return builder.buildFuture();
-        });
+            owner.markDirty();
+        }
+
     }
 
     @SuppressWarnings("unchecked")
@@ -295,6 +474,12 @@ public abstract class BaseCommand<S> {
         protected Predicate<S> condition;
         @Nullable
         protected CommandExecutor<S> defaultExecutor;
+        @Nullable
+        protected ExecutionStrategy executionStrategy;
+        @Nullable
+        protected Duration executionTimeout;
+        @Nullable
+        protected ExecutionPriority executionPriority;
         protected Command.ExecutionScope executionScope = Command.ExecutionScope.ALL;
         protected final List<Permission> permissions = new ArrayList<>();
         protected final List<BaseCommand<S>> subCommands = new ArrayList<>();
@@ -358,6 +543,25 @@ public abstract class BaseCommand<S> {
             return (T) this;
         }
 
+        public final T setExecutionStrategy(@NotNull ExecutionStrategy executionStrategy) {
+            this.executionStrategy = executionStrategy;
+            return (T) this;
+        }
+
+        public final T setExecutionThread(@NotNull ExecutionThread thread) {
+            return setExecutionStrategy(thread);
+        }
+
+        public final T setExecutionPriority(@NotNull ExecutionPriority executionPriority) {
+            this.executionPriority = executionPriority;
+            return (T) this;
+        }
+
+        public final T setExecutionTimeout(@NotNull Duration executionTimeout) {
+            this.executionTimeout = executionTimeout;
+            return (T) this;
+        }
+
         public final T addArgument(@NotNull String argName, @NotNull ArgumentType<?> argumentType,
                                                        @NotNull SuggestionProvider<S> suggestionProvider) {
             return addArgument(new ArgumentElement<>(argName, argumentType, suggestionProvider));
@@ -381,16 +585,27 @@ public abstract class BaseCommand<S> {
             return executeConditional(null, executor, requiredArgs);
         }
 
+        public final T execute(@NotNull ExecutionStrategy strategy, @NotNull CommandExecutor<S> executor,
+                               @NotNull String... requiredArgs) {
+            return executeConditional(null, strategy, executor, requiredArgs);
+        }
+
         public final T executeConditional(@Nullable Predicate<S> condition,
                                                               @NotNull CommandExecutor<S> executor,
                                                               @NotNull String... requiredArgs) {
+            return executeConditional(condition, null, executor, requiredArgs);
+        }
+
+        public final T executeConditional(@Nullable Predicate<S> condition, @Nullable ExecutionStrategy strategy,
+                                          @NotNull CommandExecutor<S> executor,
+                                          @NotNull String... requiredArgs) {
             this.syntaxes.add(new CommandSyntax<>(condition, executor, Arrays.stream(requiredArgs).map(argString -> {
                 CommandElement<S> argumentElement = argumentElements.get(argString);
                 if (argumentElement == null) {
                     throw new IllegalArgumentException("Argument " + argString + " not found");
                 }
                 return argumentElement;
-            }).toList()));
+            }).toList(), strategy));
             return (T) this;
         }
 
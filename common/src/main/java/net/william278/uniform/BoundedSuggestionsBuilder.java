@@ -0,0 +1,156 @@
+/*
+ * This file is part of Uniform, licensed under the GNU General Public License v3.0.
+ *
+ *  Copyright (c) Tofaa2
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.william278.uniform;
+
+import com.mojang.brigadier.Message;
+import com.mojang.brigadier.suggestion.Suggestion;
+import com.mojang.brigadier.suggestion.SuggestionProvider;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A suggestions builder that accepts at most a fixed number of suggestions. Providers can check {@link #isFull()} to
+ * stop looking for more once it's full.
+ * <p>
+ * Providers wrapped with {@link #limit(SuggestionProvider, int)} are passed a bounded builder. If more suggestions
+ * were offered than fit, the last suggestion returned carries a {@link #isTruncated(Suggestions) more results}
+ * tooltip.
+ *
+ * @since 1.4
+ */
+@SuppressWarnings("unused")
+public final class BoundedSuggestionsBuilder extends SuggestionsBuilder {
+
+    private final int maxSuggestions;
+    private int count;
+    private boolean truncated;
+
+    public BoundedSuggestionsBuilder(@NotNull SuggestionsBuilder builder, int maxSuggestions) {
+        super(builder.getInput(), builder.getStart());
+        if (maxSuggestions < 1) {
+            throw new IllegalArgumentException("Suggestion limit must be at least 1");
+        }
+        this.maxSuggestions = maxSuggestions;
+    }
+
+    /**
+     * Wrap a provider so it's passed a bounded builder and returns at most a number of suggestions
+     *
+     * @param provider       the provider
+     * @param maxSuggestions the maximum number of suggestions
+     * @param <S>            the command source type
+     * @return the limited provider
+     */
+    @NotNull
+    public static <S> SuggestionProvider<S> limit(@NotNull SuggestionProvider<S> provider, int maxSuggestions) {
+        return (context, builder) -> {
+            final BoundedSuggestionsBuilder bounded = new BoundedSuggestionsBuilder(builder, maxSuggestions);
+            return provider.getSuggestions(context, bounded).thenApply(bounded::truncate);
+        };
+    }
+
+    /**
+     * Get whether suggestions were cut short by a suggestion limit
+     *
+     * @param suggestions the suggestions
+     * @return whether more suggestions were available
+     */
+    public static boolean isTruncated(@NotNull Suggestions suggestions) {
+        final List<Suggestion> list = suggestions.getList();
+        return !list.isEmpty() && list.get(list.size() - 1).getTooltip() instanceof MoreResults;
+    }
+
+    public boolean isFull() {
+        return count >= maxSuggestions;
+    }
+
+    public int getCapacity() {
+        return maxSuggestions - count;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    @Override
+    public SuggestionsBuilder suggest(String text) {
+        return accept(!text.equals(getRemaining())) ? super.suggest(text) : this;
+    }
+
+    @Override
+    public SuggestionsBuilder suggest(String text, Message tooltip) {
+        return accept(!text.equals(getRemaining())) ? super.suggest(text, tooltip) : this;
+    }
+
+    @Override
+    public SuggestionsBuilder suggest(int value) {
+        return accept(true) ? super.suggest(value) : this;
+    }
+
+    @Override
+    public SuggestionsBuilder suggest(int value, Message tooltip) {
+        return accept(true) ? super.suggest(value, tooltip) : this;
+    }
+
+    private boolean accept(boolean counts) {
+        if (!counts) {
+            return true;
+        }
+        if (isFull()) {
+            truncated = true;
+            return false;
+        }
+        count++;
+        return true;
+    }
+
+    // Also trims suggestions added in bulk, such as through add(SuggestionsBuilder)
+    @NotNull
+    private Suggestions truncate(@NotNull Suggestions suggestions) {
+        final List<Suggestion> list = suggestions.getList();
+        if (!truncated && list.size() <= maxSuggestions) {
+            return suggestions;
+        }
+        final List<Suggestion> kept = new ArrayList<>(list.subList(0, Math.min(list.size(), maxSuggestions)));
+        if (!kept.isEmpty()) {
+            final Suggestion last = kept.get(kept.size() - 1);
+            final Message tooltip = new MoreResults(last.getTooltip());
+            kept.set(kept.size() - 1, new Suggestion(last.getRange(), last.getText(), tooltip));
+        }
+        return new Suggestions(suggestions.getRange(), kept);
+    }
+
+    private record MoreResults(@Nullable Message tooltip) implements Message {
+
+        @Override
+        public String getString() {
+            return tooltip == null ? "More results, keep typing..." : tooltip.getString() + " (more results...)";
+        }
+
+    }
+
+}
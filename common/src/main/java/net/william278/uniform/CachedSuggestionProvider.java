@@ -0,0 +1,292 @@
+/*
+ * This file is part of Uniform, licensed under the GNU General Public License v3.0.
+ *
+ *  Copyright (c) Tofaa2
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.william278.uniform;
+
+import com.mojang.brigadier.Message;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.suggestion.Suggestion;
+import com.mojang.brigadier.suggestion.SuggestionProvider;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Decorates a {@link SuggestionProvider} to remember its suggestions for a while, so providers that query storage or
+ * walk large collections aren't called on every keystroke
+ * <p>
+ * Suggestions are remembered per source key, per text preceding the argument and per typed prefix. Each cache must
+ * either be given a source key, such as the player's UUID, or be explicitly
+ * {@link #shared(SuggestionProvider, Duration) shared} between all sources. While cached suggestions for a prefix are
+ * fresh, suggestions for any longer prefix are derived by filtering them; turn this off with
+ * {@link Builder#setNarrowing(boolean)} for providers that don't match what has been typed by prefix. Suggestions
+ * cached for the exact prefix are served unchanged, and suggestions that don't all start with their prefix at the
+ * argument (such as substring matches, or suggestions at an offset) are never narrowed.
+ * <pre>{@code
+ * addArgument("home", StringArgumentType.word(),
+ *         CachedSuggestionProvider.of(homeSuggestions, Duration.ofSeconds(5), source -> getUser(source).getUuid()));
+ * }</pre>
+ *
+ * @param <S> the command source type
+ * @since 1.4
+ */
+@SuppressWarnings("unused")
+public final class CachedSuggestionProvider<S> implements SuggestionProvider<S> {
+
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+
+    private final SuggestionProvider<S> delegate;
+    private final long expiryNanos;
+    private final int maxEntries;
+    private final Function<S, ?> sourceKey;
+    private final boolean narrowing;
+    private final Map<Key, Entry> entries;
+    private long hits;
+    private long misses;
+
+    private CachedSuggestionProvider(@NotNull Builder<S> builder) {
+        this.delegate = builder.delegate;
+        this.expiryNanos = builder.expiry.toNanos();
+        this.maxEntries = builder.maxEntries;
+        this.sourceKey = builder.sourceKey;
+        this.narrowing = builder.narrowing;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Cache a provider's suggestions separately for each source key
+     *
+     * @param delegate  the provider to cache
+     * @param expiry    how long suggestions are kept
+     * @param sourceKey function mapping a source to its key, such as the player's UUID
+     * @param <S>       the command source type
+     * @return the caching provider
+     */
+    @NotNull
+    public static <S> CachedSuggestionProvider<S> of(@NotNull SuggestionProvider<S> delegate, @NotNull Duration expiry,
+                                                     @NotNull Function<S, ?> sourceKey) {
+        return CachedSuggestionProvider.builder(delegate).setExpiry(expiry).setSourceKey(sourceKey).build();
+    }
+
+    /**
+     * Cache a provider's suggestions, shared between all sources; only for suggestions that don't depend on the source
+     *
+     * @param delegate the provider to cache
+     * @param expiry   how long suggestions are kept
+     * @param <S>      the command source type
+     * @return the caching provider
+     */
+    @NotNull
+    public static <S> CachedSuggestionProvider<S> shared(@NotNull SuggestionProvider<S> delegate,
+                                                         @NotNull Duration expiry) {
+        return CachedSuggestionProvider.builder(delegate).setExpiry(expiry).setSourceKey(source -> null).build();
+    }
+
+    @NotNull
+    public static <S> Builder<S> builder(@NotNull SuggestionProvider<S> delegate) {
+        return new Builder<>(delegate);
+    }
+
+    @Override
+    public CompletableFuture<Suggestions> getSuggestions(CommandContext<S> context, SuggestionsBuilder builder) {
+        final Object source = sourceKey.apply(context.getSource());
+        final String preceding = builder.getInput().substring(0, builder.getStart());
+        final String prefix = builder.getRemainingLowerCase();
+
+        final Hit hit = lookup(source, preceding, prefix);
+        if (hit != null) {
+            // The suggestions for this very input are served as the provider returned them
+            if (hit.exact()) {
+                return CompletableFuture.completedFuture(hit.entry().suggestions());
+            }
+            for (Cached suggestion : hit.entry().narrowable()) {
+                if (suggestion.lowerCase().startsWith(prefix)) {
+                    builder.suggest(suggestion.text(), suggestion.tooltip());
+                }
+            }
+            return builder.buildFuture();
+        }
+
+        final Key key = new Key(source, preceding, prefix);
+        final long expiresAt = System.nanoTime() + expiryNanos;
+        return delegate.getSuggestions(context, builder).thenApply(suggestions -> {
+            // Cut-short suggestions can't be served again, nor narrowed from, as they'd hide results
+            if (BoundedSuggestionsBuilder.isTruncated(suggestions)
+                    || builder instanceof BoundedSuggestionsBuilder bounded && bounded.isTruncated()) {
+                return suggestions;
+            }
+            final Entry entry = new Entry(suggestions, narrowing ? narrowable(suggestions, builder, prefix) : null,
+                    expiresAt);
+            synchronized (this) {
+                entries.put(key, entry);
+            }
+            return suggestions;
+        });
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    // Suggestions can only be narrowed if they all replace the argument from its start and match it by prefix
+    @Nullable
+    private static List<Cached> narrowable(@NotNull Suggestions suggestions, @NotNull SuggestionsBuilder builder,
+                                           @NotNull String prefix) {
+        final List<Cached> result = new ArrayList<>(suggestions.getList().size());
+        for (Suggestion suggestion : suggestions.getList()) {
+            final String lowerCase = suggestion.getText().toLowerCase(Locale.ROOT);
+            if (suggestion.getRange().getStart() != builder.getStart() || !lowerCase.startsWith(prefix)) {
+                return null;
+            }
+            result.add(new Cached(suggestion.getText(), lowerCase, suggestion.getTooltip()));
+        }
+        return result;
+    }
+
+    // Finds fresh suggestions for the prefix, or for the longest shorter prefix they can be narrowed from
+    @Nullable
+    private synchronized Hit lookup(@Nullable Object source, @NotNull String preceding, @NotNull String prefix) {
+        final long now = System.nanoTime();
+        final int shortest = narrowing ? 0 : prefix.length();
+        for (int length = prefix.length(); length >= shortest; length--) {
+            final Key key = new Key(source, preceding, prefix.substring(0, length));
+            final Entry entry = entries.get(key);
+            if (entry == null) {
+                continue;
+            }
+            if (now - entry.expiresAt() >= 0) {
+                entries.remove(key);
+                continue;
+            }
+            final boolean exact = length == prefix.length();
+            if (!exact && entry.narrowable() == null) {
+                continue;
+            }
+            hits++;
+            return new Hit(entry, exact);
+        }
+        misses++;
+        return null;
+    }
+
+    private record Key(@Nullable Object source, @NotNull String preceding, @NotNull String prefix) {
+    }
+
+    private record Entry(@NotNull Suggestions suggestions, @Nullable List<Cached> narrowable, long expiresAt) {
+    }
+
+    private record Hit(@NotNull Entry entry, boolean exact) {
+    }
+
+    private record Cached(@NotNull String text, @NotNull String lowerCase, @Nullable Message tooltip) {
+    }
+
+    public static final class Builder<S> {
+
+        private final SuggestionProvider<S> delegate;
+        private Duration expiry = Duration.ofSeconds(5);
+        private int maxEntries = DEFAULT_MAX_ENTRIES;
+        @Nullable
+        private Function<S, ?> sourceKey;
+        private boolean narrowing = true;
+
+        private Builder(@NotNull SuggestionProvider<S> delegate) {
+            this.delegate = delegate;
+        }
+
+        @NotNull
+        public Builder<S> setExpiry(@NotNull Duration expiry) {
+            if (expiry.isNegative()) {
+                throw new IllegalArgumentException("Suggestion expiry must not be negative");
+            }
+            this.expiry = expiry;
+            return this;
+        }
+
+        @NotNull
+        public Builder<S> setMaxEntries(int maxEntries) {
+            if (maxEntries < 1) {
+                throw new IllegalArgumentException("Suggestion caches must hold at least one entry");
+            }
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * Keep separate suggestions for each key, such as a player's UUID for suggesting their homes. A function
+         * returning {@code null} shares suggestions between all sources
+         *
+         * @param sourceKey function mapping a source to its key
+         * @return the builder
+         */
+        @NotNull
+        public Builder<S> setSourceKey(@NotNull Function<S, ?> sourceKey) {
+            this.sourceKey = sourceKey;
+            return this;
+        }
+
+        /**
+         * Set whether suggestions for a prefix may be filtered from those cached for a shorter one, which only holds
+         * for providers that match what has been typed by prefix
+         *
+         * @param narrowing whether to narrow cached suggestions
+         * @return the builder
+         */
+        @NotNull
+        public Builder<S> setNarrowing(boolean narrowing) {
+            this.narrowing = narrowing;
+            return this;
+        }
+
+        @NotNull
+        public CachedSuggestionProvider<S> build() {
+            if (sourceKey == null) {
+                throw new IllegalStateException("Suggestion caches need a source key, or to be explicitly shared");
+            }
+            return new CachedSuggestionProvider<>(this);
+        }
+
+    }
+
+}
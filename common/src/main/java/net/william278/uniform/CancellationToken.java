@@ -0,0 +1,150 @@
+/*
+ * This file is part of Uniform, licensed under the GNU General Public License v3.0.
+ *
+ *  Copyright (c) Tofaa2
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.william278.uniform;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Signals that a command execution should stop, either because it ran past its timeout or because it was cancelled
+ * (e.g. when the user executing it disconnected)
+ * <p>
+ * Cancellation is cooperative: long-running executors should check {@link #isCancelled()} or call
+ * {@link #throwIfCancelled()} between units of work. Executors running on a thread other than the one the command
+ * was dispatched on are also interrupted, and the futures returned by {@link AsyncCommandExecutor}s are cancelled.
+ *
+ * @since 1.4
+ */
+@SuppressWarnings("unused")
+public final class CancellationToken {
+
+    private static final ThreadLocal<CancellationToken> CURRENT = new ThreadLocal<>();
+    private static final CancellationToken NONE = new CancellationToken(null, null, false, null);
+
+    @Nullable
+    private final UUID user;
+    @Nullable
+    private final Thread dispatcher;
+    private final boolean interruptible;
+    @Nullable
+    private final CompletableFuture<?> result;
+    private final long dispatchedAt = System.nanoTime();
+    private volatile long startedAt;
+    private volatile boolean cancelled;
+    private volatile boolean timedOut;
+    @Nullable
+    private Thread runner;
+
+    CancellationToken(@Nullable UUID user, @Nullable Thread dispatcher, boolean interruptible,
+                      @Nullable CompletableFuture<?> result) {
+        this.user = user;
+        this.dispatcher = dispatcher;
+        this.interruptible = interruptible;
+        this.result = result;
+    }
+
+    /**
+     * Get the token for the executor running on the current thread
+     *
+     * @return the current token, or a token that is never cancelled if no executor is running
+     */
+    @NotNull
+    public static CancellationToken current() {
+        final CancellationToken token = CURRENT.get();
+        return token != null ? token : NONE;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    public void throwIfCancelled() throws CancellationException {
+        if (cancelled) {
+            throw new CancellationException(timedOut ? "Command execution timed out" : "Command execution cancelled");
+        }
+    }
+
+    public void cancel() {
+        if (this == NONE) {
+            return;
+        }
+        cancelled = true;
+        synchronized (this) {
+            if (interruptible && runner != null && runner != dispatcher) {
+                runner.interrupt();
+            }
+        }
+        if (result != null) {
+            result.completeExceptionally(new CancellationException(
+                    timedOut ? "Command execution timed out" : "Command execution cancelled"
+            ));
+        }
+    }
+
+    void timeout() {
+        timedOut = true;
+        cancel();
+    }
+
+    @Nullable
+    UUID getUser() {
+        return user;
+    }
+
+    long getDispatchedAt() {
+        return dispatchedAt;
+    }
+
+    long getStartedAt() {
+        return startedAt != 0 ? startedAt : dispatchedAt;
+    }
+
+    void enter() {
+        startedAt = System.nanoTime();
+        synchronized (this) {
+            runner = Thread.currentThread();
+        }
+        CURRENT.set(this);
+    }
+
+    void exit() {
+        CURRENT.remove();
+        final boolean interrupted;
+        synchronized (this) {
+            interrupted = interruptible && runner != dispatcher && cancelled;
+            runner = null;
+        }
+        // Don't leak our interrupt into whatever the pool thread runs next
+        if (interrupted) {
+            Thread.interrupted();
+        }
+    }
+
+}
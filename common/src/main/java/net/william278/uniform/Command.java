@@ -37,6 +37,7 @@ import org.jetbrains.annotations.Nullable;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -116,25 +117,29 @@ public abstract class Command implements CommandProvider {
                     continue;
                 }
 
-                // Default executor
+                // Default executor (a timeout or thread needs a syntax to live on, so it mirrors the command's condition)
                 final CommandElement[] args = getMethodArguments(method);
+                final Duration timeout = syntax.timeoutMillis() > 0 ? Duration.ofMillis(syntax.timeoutMillis()) : null;
+                final ExecutionThread thread = syntax.thread() != ExecutionThread.ASYNC ? syntax.thread() : null;
                 if (args.length == 0) {
-                    cmd.setDefaultExecutor(methodToExecutor(method, annotated, cmd));
+                    if (timeout == null && thread == null) {
+                        cmd.setDefaultExecutor(methodToExecutor(method, annotated, cmd));
+                        continue;
+                    }
+                    cmd.addSyntax(new CommandSyntax(cmd.getCondition(), methodToExecutor(method, annotated, cmd),
+                            List.of(), thread).withTimeout(timeout));
                     continue;
                 }
 
                 // Determine predicates
-                final Optional<Predicate> perm = Permission.annotated(syntax.permission()).map(p -> p.toPredicate(cmd));
-                final Optional<Predicate> scope = Optional.ofNullable(syntax.scope().toPredicate(cmd));
-                final Optional<Predicate> combined = scope.map(sp -> perm.map(pp -> sp.and(pp)).orElse(sp));
+                final List<Permission> perm = Permission.annotated(syntax.permission()).map(List::of).orElse(List.of());
+                final List<ExecutionScope> scope = syntax.scope() != ExecutionScope.ALL
+                        ? List.of(syntax.scope()) : List.of();
+                final Predicate condition = CompiledCondition.compile(cmd, scope, perm, List.of());
 
                 // Conditional & unconditional syntax
                 final CommandExecutor executor = methodToExecutor(method, annotated, cmd);
-                if (combined.isPresent()) {
-                    cmd.addConditionalSyntax(combined.get(), executor, args);
-                    continue;
-                }
-                cmd.addSyntax(executor, args);
+                cmd.addSyntax(new CommandSyntax(condition, executor, List.of(args), thread).withTimeout(timeout));
             }
 
             // Add subcommands
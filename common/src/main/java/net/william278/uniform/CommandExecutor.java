@@ -29,6 +29,7 @@ import org.jetbrains.annotations.Nullable;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.util.concurrent.CompletableFuture;
 
 public interface CommandExecutor<S> {
 
@@ -37,13 +38,33 @@ public interface CommandExecutor<S> {
     @NotNull
     static <S> CommandExecutor<S> methodToExecutor(@NotNull Method method, @NotNull Object instance,
                                                    @NotNull BaseCommand<?> cmd) {
-        return (context) -> {
-            try {
-                method.invoke(instance, injectParams(method, context, cmd));
-            } catch (IllegalAccessException | InvocationTargetException e) {
-                throw new IllegalStateException("Failed to invoke command executor from annotated method", e);
-            }
-        };
+        final Class<?> returnType = method.getReturnType();
+        if (returnType == int.class || returnType == Integer.class) {
+            return (ResultCommandExecutor<S>) (context) -> {
+                final Object result = invoke(method, instance, context, cmd);
+                return result != null ? (int) result : 0;
+            };
+        }
+        if (CompletableFuture.class.isAssignableFrom(returnType)) {
+            return (AsyncCommandExecutor<S>) (context) -> castFuture(invoke(method, instance, context, cmd));
+        }
+        return (context) -> invoke(method, instance, context, cmd);
+    }
+
+    @Nullable
+    private static Object invoke(@NotNull Method method, @NotNull Object instance,
+                                 @NotNull CommandContext<?> context, @NotNull BaseCommand<?> cmd) {
+        try {
+            return method.invoke(instance, injectParams(method, context, cmd));
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Failed to invoke command executor from annotated method", e);
+        }
+    }
+
+    @NotNull
+    @SuppressWarnings("unchecked")
+    private static CompletableFuture<Integer> castFuture(@Nullable Object future) {
+        return future != null ? (CompletableFuture<Integer>) future : CompletableFuture.completedFuture(0);
     }
 
     @Nullable
@@ -25,10 +25,37 @@ import net.william278.uniform.element.CommandElement;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.function.Predicate;
 
 public record CommandSyntax<S>(@Nullable Predicate<S> condition, @NotNull CommandExecutor<S> executor,
-                               @NotNull List<CommandElement<S>> elements) {
+                               @NotNull List<CommandElement<S>> elements,
+                               @Nullable ExecutionStrategy executionStrategy, @Nullable Duration timeout) {
+
+    public CommandSyntax(@Nullable Predicate<S> condition, @NotNull CommandExecutor<S> executor,
+                         @NotNull List<CommandElement<S>> elements) {
+        this(condition, executor, elements, null, null);
+    }
+
+    public CommandSyntax(@Nullable Predicate<S> condition, @NotNull CommandExecutor<S> executor,
+                         @NotNull List<CommandElement<S>> elements, @Nullable ExecutionStrategy executionStrategy) {
+        this(condition, executor, elements, executionStrategy, null);
+    }
+
+    @NotNull
+    public CommandSyntax<S> withElements(@NotNull List<CommandElement<S>> elements) {
+        return new CommandSyntax<>(condition, executor, elements, executionStrategy, timeout);
+    }
+
+    @NotNull
+    public CommandSyntax<S> withExecutionStrategy(@Nullable ExecutionStrategy executionStrategy) {
+        return new CommandSyntax<>(condition, executor, elements, executionStrategy, timeout);
+    }
+
+    @NotNull
+    public CommandSyntax<S> withTimeout(@Nullable Duration timeout) {
+        return new CommandSyntax<>(condition, executor, elements, executionStrategy, timeout);
+    }
 
 }
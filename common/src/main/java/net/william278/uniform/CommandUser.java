@@ -25,6 +25,7 @@ import net.kyori.adventure.audience.Audience;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.BitSet;
 import java.util.UUID;
 
 @SuppressWarnings("unused")
@@ -46,6 +47,24 @@ public interface CommandUser {
         return checkPermission(new Permission(permission, permissionDefault));
     }
 
+    /**
+     * Check a batch of permissions at once, such as every permission used by a command tree
+     *
+     * @param permissions the permissions to check
+     * @return a bitset with the index of each permission the user has set
+     * @since 1.4
+     */
+    @NotNull
+    default BitSet checkPermissions(@NotNull Permission @NotNull [] permissions) {
+        final BitSet result = new BitSet(permissions.length);
+        for (int i = 0; i < permissions.length; i++) {
+            if (checkPermission(permissions[i])) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+
     default boolean isConsole() {
         return getName() == null;
     }
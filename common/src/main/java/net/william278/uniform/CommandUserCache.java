@@ -0,0 +1,153 @@
+/*
+ * This file is part of Uniform, licensed under the GNU General Public License v3.0.
+ *
+ *  Copyright (c) Tofaa2
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.william278.uniform;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Caches the {@link CommandUser} wrapping each command source, so that Brigadier's {@code requires} predicates don't
+ * allocate a new wrapper every time they are evaluated
+ * <p>
+ * Sources are compared by identity. Wrappers only delegate to their source, so a cached wrapper never goes stale;
+ * entries are dropped when their user disconnects, when the command user supplier changes, or when the cache fills.
+ * Platforms that create a new source for every dispatch use {@link #forTransientSources()}, which only remembers the
+ * most recent lookup rather than filling the cache with sources that are never seen again.
+ *
+ * @since 1.4
+ */
+@SuppressWarnings("unused")
+public final class CommandUserCache {
+
+    public static final int DEFAULT_MAX_SIZE = 512;
+
+    private final int maxSize;
+    private final boolean transientSources;
+    private final Map<Object, CommandUser> users = new IdentityHashMap<>();
+    @Nullable
+    private Function<Object, CommandUser> supplier;
+    @Nullable
+    private volatile Entry last;
+
+    private CommandUserCache(int maxSize, boolean transientSources) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Command user cache size must be at least 1");
+        }
+        this.maxSize = maxSize;
+        this.transientSources = transientSources;
+    }
+
+    public CommandUserCache(int maxSize) {
+        this(maxSize, false);
+    }
+
+    public CommandUserCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Create a cache for command sources that are created for each dispatch, such as Paper's
+     * {@code CommandSourceStack} or Fabric's {@code ServerCommandSource}
+     *
+     * @return the cache
+     */
+    @NotNull
+    public static CommandUserCache forTransientSources() {
+        return new CommandUserCache(DEFAULT_MAX_SIZE, true);
+    }
+
+    /**
+     * Get the cached user for a command source, creating it with the supplier if absent
+     *
+     * @param source   the command source
+     * @param supplier the uniform's command user supplier
+     * @return the command user
+     */
+    @NotNull
+    public CommandUser get(@NotNull Object source, @NotNull Function<Object, CommandUser> supplier) {
+        // Brigadier tests the same source against many nodes in a row, so check the last lookup first
+        final Entry last = this.last;
+        if (last != null && last.source == source && last.supplier == supplier) {
+            return last.user;
+        }
+
+        if (transientSources) {
+            final CommandUser user = supplier.apply(source);
+            this.last = new Entry(source, supplier, user);
+            return user;
+        }
+
+        CommandUser user;
+        synchronized (this) {
+            if (this.supplier != supplier) {
+                users.clear();
+                this.supplier = supplier;
+            }
+            user = users.get(source);
+            if (user == null) {
+                if (users.size() >= maxSize) {
+                    users.clear();
+                }
+                user = supplier.apply(source);
+                users.put(source, user);
+            }
+        }
+        this.last = new Entry(source, supplier, user);
+        return user;
+    }
+
+    /**
+     * Drop the cached users for a user, such as when they disconnect
+     *
+     * @param uuid the user's UUID
+     */
+    public void invalidate(@NotNull UUID uuid) {
+        synchronized (this) {
+            users.values().removeIf(user -> uuid.equals(user.getUuid()));
+        }
+        final Entry last = this.last;
+        if (last != null && uuid.equals(last.user.getUuid())) {
+            this.last = null;
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (this) {
+            users.clear();
+        }
+        this.last = null;
+    }
+
+    public synchronized int size() {
+        return users.size();
+    }
+
+    private record Entry(@NotNull Object source, @NotNull Function<Object, CommandUser> supplier,
+                         @NotNull CommandUser user) {
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * This file is part of Uniform, licensed under the GNU General Public License v3.0.
+ *
+ *  Copyright (c) Tofaa2
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.william278.uniform;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+// A command's scopes, permissions and custom conditions flattened into one predicate. The user is resolved once per
+// test, and the free scope checks run before the permission lookups
+final class CompiledCondition<S> implements Predicate<S> {
+
+    private final BaseCommand<S> command;
+    private final Command.ExecutionScope[] scopes;
+    private final Permission[] permissions;
+    private final Predicate<S>[] conditions;
+
+    @SuppressWarnings("unchecked")
+    private CompiledCondition(@NotNull BaseCommand<S> command, @NotNull List<Command.ExecutionScope> scopes,
+                              @NotNull List<Permission> permissions, @NotNull List<Predicate<S>> conditions) {
+        this.command = command;
+        this.scopes = scopes.stream().distinct().toArray(Command.ExecutionScope[]::new);
+        this.permissions = permissions.stream().distinct().toArray(Permission[]::new);
+        this.conditions = conditions.toArray(Predicate[]::new);
+    }
+
+    @Nullable
+    static <S> Predicate<S> compile(@NotNull BaseCommand<S> command, @NotNull List<Command.ExecutionScope> scopes,
+                                    @NotNull List<Permission> permissions, @NotNull List<Predicate<S>> conditions) {
+        if (scopes.isEmpty() && permissions.isEmpty()) {
+            return switch (conditions.size()) {
+                case 0 -> null;
+                case 1 -> conditions.get(0);
+                default -> new CompiledCondition<>(command, scopes, permissions, conditions);
+            };
+        }
+        return new CompiledCondition<>(command, scopes, permissions, conditions);
+    }
+
+    @NotNull
+    Permission[] permissions() {
+        return permissions;
+    }
+
+    // The scopes and custom conditions alone, for trees already pruned by permission
+    @NotNull
+    Predicate<S> withoutPermissions() {
+        final Predicate<S> stripped = compile(command, List.of(scopes), List.of(), List.of(conditions));
+        return stripped != null ? stripped : source -> true;
+    }
+
+    @Override
+    public boolean test(@NotNull S source) {
+        if (scopes.length > 0 || permissions.length > 0) {
+            final CommandUser user = command.getUser(source);
+            for (Command.ExecutionScope scope : scopes) {
+                if (!scope.contains(user)) {
+                    return false;
+                }
+            }
+            if (permissions.length > 0) {
+                final PermissionCache cache = command.getUniform().getPermissionCache();
+                final Permission[] batch = command.getPermissionBatch();
+                for (Permission permission : permissions) {
+                    if (!cache.check(user, permission, batch)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        for (Predicate<S> condition : conditions) {
+            if (!condition.test(source)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
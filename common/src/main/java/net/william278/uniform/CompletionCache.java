@@ -0,0 +1,139 @@
+/*
+ * This file is part of Uniform, licensed under the GNU General Public License v3.0.
+ *
+ *  Copyright (c) Tofaa2
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.william278.uniform;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Waits a bounded time for tab completions, so a slow {@code SuggestionProvider} can't stall the thread that asked
+ * for them
+ * <p>
+ * When the deadline passes, the source's last completions for the same input are returned, or none if there are
+ * none. The late completions are kept once they arrive, so asking again for the same input returns them.
+ * <p>
+ * Only the wait for suggestions that complete later is bounded. Brigadier calls each provider on the thread asking
+ * for completions, so a provider that blocks before returning its future still stalls that thread; slow providers
+ * should do their work on another thread and return an incomplete future. Sources are compared by identity, and
+ * should be evicted with {@link #invalidate(Object)} when they disconnect.
+ *
+ * @param <S> the command source type
+ * @since 1.4
+ */
+@SuppressWarnings("unused")
+public final class CompletionCache<S> {
+
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofMillis(10);
+    public static final Duration ASYNC_TIMEOUT = Duration.ofSeconds(1);
+    public static final int DEFAULT_MAX_SOURCES = 256;
+
+    private final int maxSources;
+    private final Map<S, Entry> completions = new IdentityHashMap<>();
+    private long timeouts;
+
+    public CompletionCache(int maxSources) {
+        if (maxSources < 1) {
+            throw new IllegalArgumentException("Completion cache size must be at least 1");
+        }
+        this.maxSources = maxSources;
+    }
+
+    public CompletionCache() {
+        this(DEFAULT_MAX_SOURCES);
+    }
+
+    /**
+     * Wait for completions of an input, up to a timeout
+     *
+     * @param source  the command source
+     * @param input   the input being completed
+     * @param future  the pending completions
+     * @param timeout how long to wait for the completions, or {@code null} to wait until they complete
+     * @return the completions, or the last completions of the input if they didn't arrive in time
+     */
+    @NotNull
+    public List<String> await(@NotNull S source, @NotNull String input, @NotNull CompletableFuture<List<String>> future,
+                              @Nullable Duration timeout) {
+        try {
+            final List<String> result = future.isDone() || timeout == null ? future.get()
+                    : future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            put(source, input, result);
+            return result;
+        } catch (TimeoutException e) {
+            future.thenAccept(result -> put(source, input, result));
+            return fallback(source, input);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallback(source, input);
+        } catch (ExecutionException e) {
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    /**
+     * Drop a source's last completions, such as when it disconnects
+     *
+     * @param source the command source
+     */
+    public synchronized void invalidate(@NotNull S source) {
+        completions.remove(source);
+    }
+
+    public synchronized void invalidateAll() {
+        completions.clear();
+    }
+
+    public synchronized long getTimeouts() {
+        return timeouts;
+    }
+
+    @NotNull
+    private synchronized List<String> fallback(@NotNull S source, @NotNull String input) {
+        timeouts++;
+        final Entry entry = completions.get(source);
+        return entry != null && entry.input.equals(input) ? entry.completions : List.of();
+    }
+
+    private synchronized void put(@NotNull S source, @NotNull String input, @Nullable List<String> result) {
+        if (result == null) {
+            return;
+        }
+        if (!completions.containsKey(source) && completions.size() >= maxSources) {
+            completions.clear();
+        }
+        completions.put(source, new Entry(input, result));
+    }
+
+    private record Entry(@NotNull String input, @NotNull List<String> completions) {
+    }
+
+}
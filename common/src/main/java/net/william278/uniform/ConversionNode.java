@@ -40,12 +40,17 @@ record ConversionNode<S>(@NotNull CommandElement<S> element, @Nullable Execution
         for (CommandSyntax<S> syntax : command.getSyntaxes()) {
             ConversionNode<S> syntaxNode = root;
 
-            for (CommandElement<S> element : syntax.elements()) {
-                boolean last = element == syntax.elements().get(syntax.elements().size() - 1);
-                syntaxNode = syntaxNode.nextMap.computeIfAbsent(element, e -> {
-                    Execution<S> execution = last ? Execution.fromSyntax(syntax) : null;
-                    return new ConversionNode<>(e, execution);
-                });
+            final List<CommandElement<S>> elements = syntax.elements();
+            for (int i = 0; i < elements.size(); i++) {
+                final ConversionNode<S> parent = syntaxNode;
+                syntaxNode = parent.nextMap.computeIfAbsent(elements.get(i), e -> new ConversionNode<>(e, null));
+
+                // Equal elements share a node, so a syntax may end on a node an earlier syntax passed through
+                if (i == elements.size() - 1 && syntaxNode.execution == null) {
+                    syntaxNode = new ConversionNode<>(syntaxNode.element, Execution.fromSyntax(command, syntax),
+                            syntaxNode.nextMap);
+                    parent.nextMap.put(syntaxNode.element, syntaxNode);
+                }
             }
         }
 
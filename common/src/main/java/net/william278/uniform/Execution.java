@@ -22,13 +22,20 @@
 package net.william278.uniform;
 
 import com.mojang.brigadier.builder.ArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Predicate;
 
 record Execution<S>(@NotNull Predicate<S> predicate, @Nullable CommandExecutor<S> defaultExecutor,
-                    @Nullable CommandExecutor<S> executor, @Nullable Predicate<S> condition) implements Predicate<S> {
+                    @Nullable CommandExecutor<S> executor, @Nullable Predicate<S> condition,
+                    @NotNull BaseCommand<S> command, @Nullable ExecutionStrategy strategy,
+                    @Nullable Duration timeout) implements Predicate<S> {
 
     @NotNull
     static <S> Execution<S> fromCommand(@NotNull BaseCommand<S> command) {
@@ -37,21 +44,27 @@ record Execution<S>(@NotNull Predicate<S> predicate, @Nullable CommandExecutor<S
 
         CommandExecutor<S> executor = defaultExecutor;
         Predicate<S> condition = defaultCondition;
+        ExecutionStrategy strategy = null;
+        Duration timeout = null;
         for (CommandSyntax<S> syntax : command.getSyntaxes()) {
             if (!syntax.elements().isEmpty()) continue;
             executor = syntax.executor();
             condition = syntax.condition();
+            strategy = syntax.executionStrategy();
+            timeout = syntax.timeout();
             break;
         }
 
-        return new Execution<>(source -> defaultCondition == null || defaultCondition.test(source), defaultExecutor, executor, condition);
+        return new Execution<>(defaultCondition != null ? defaultCondition : source -> true, defaultExecutor,
+                executor, condition, command, strategy, timeout);
     }
 
     @NotNull
-    static <S> Execution<S> fromSyntax(@NotNull CommandSyntax<S> syntax) {
+    static <S> Execution<S> fromSyntax(@NotNull BaseCommand<S> command, @NotNull CommandSyntax<S> syntax) {
         CommandExecutor<S> executor = syntax.executor();
         Predicate<S> condition = syntax.condition();
-        return new Execution<>(source -> condition == null || condition.test(source), null, executor, condition);
+        return new Execution<>(condition != null ? condition : source -> true, null, executor, condition,
+                command, syntax.executionStrategy(), syntax.timeout());
     }
 
     @Override
@@ -69,11 +82,93 @@ record Execution<S>(@NotNull Predicate<S> predicate, @Nullable CommandExecutor<S
     }
 
     @NotNull
-    private static <S> com.mojang.brigadier.Command<S> convertExecutor(@NotNull CommandExecutor<S> executor) {
+    private ExecutionStrategy getStrategy() {
+        return this.strategy != null ? this.strategy : this.command.getExecutionStrategy();
+    }
+
+    @Nullable
+    private Duration getTimeout() {
+        return this.timeout != null ? this.timeout : this.command.getExecutionTimeout();
+    }
+
+    @NotNull
+    private com.mojang.brigadier.Command<S> convertExecutor(@NotNull CommandExecutor<S> executor) {
         return context -> {
-            BaseCommand.CACHED_EXECUTOR.execute(() -> executor.execute(context));
-            return 1;
+            final CommandUser user = command.getUser(context.getSource());
+            final ExecutionTracker tracker = command.getUniform().getExecutionTracker();
+            if (tracker.isClosed()) {
+                return 0;
+            }
+            final ExecutionStrategy strategy = getStrategy();
+            final CompletableFuture<Integer> result = new CompletableFuture<>();
+            final CancellationToken token = tracker.register(user, strategy.isInterruptible(command), result);
+            final Duration timeout = getTimeout();
+            result.whenComplete((code, error) -> tracker.publish(token, command, user, code, error));
+            tracker.track(strategy);
+            try {
+                strategy.execute(command, user, new ExecutionTask() {
+                    @Override
+                    public void run() {
+                        if (!tracker.run(token, timeout, result, () -> invoke(executor, context, result))) {
+                            result.complete(0);
+                        }
+                    }
+
+                    @NotNull
+                    @Override
+                    public CompletableFuture<?> getResult() {
+                        return result;
+                    }
+
+                    @Override
+                    public void reject(@NotNull RejectedExecutionException e) {
+                        tracker.complete(token);
+                        result.completeExceptionally(e);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                tracker.complete(token);
+                result.complete(0);
+                return 0;
+            }
+
+            // Report the real result if the executor completed before the strategy returned
+            if (!result.isDone()) {
+                return com.mojang.brigadier.Command.SINGLE_SUCCESS;
+            }
+            return result.isCompletedExceptionally() ? 0 : result.join();
         };
     }
 
+    private static <S> void invoke(@NotNull CommandExecutor<S> executor, @NotNull CommandContext<S> context,
+                                   @NotNull CompletableFuture<Integer> result) {
+        try {
+            if (executor instanceof AsyncCommandExecutor<S> async) {
+                final CompletableFuture<Integer> future = async.executeAsync(context);
+                future.whenComplete((code, error) -> {
+                    if (error != null) {
+                        result.completeExceptionally(error);
+                    } else {
+                        result.complete(code != null ? code : 0);
+                    }
+                });
+
+                // Stop the executor's own work once the execution times out or is cancelled
+                result.whenComplete((code, error) -> {
+                    if (error != null) {
+                        future.cancel(true);
+                    }
+                });
+                return;
+            }
+            executor.execute(context);
+            result.complete(com.mojang.brigadier.Command.SINGLE_SUCCESS);
+        } catch (CancellationException e) {
+            result.completeExceptionally(e);
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
 }
@@ -0,0 +1,47 @@
+/*
+ * This file is part of Uniform, licensed under the GNU General Public License v3.0.
+ *
+ *  Copyright (c) Tofaa2
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.william278.uniform;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+
+/**
+ * The outcome of a completed command execution, published to {@link ExecutionTracker} listeners
+ *
+ * @param command the command that was executed
+ * @param user    the user who executed the command
+ * @param result  the Brigadier result code, {@code 0} if the execution failed or was cancelled
+ * @param error   the error the execution failed with, if any
+ * @param queued  the time between dispatch and the executor starting
+ * @param elapsed the time between dispatch and the execution completing
+ * @since 1.4
+ */
+public record ExecutionResult(@NotNull BaseCommand<?> command, @NotNull CommandUser user, int result,
+                              @Nullable Throwable error, @NotNull Duration queued, @NotNull Duration elapsed) {
+
+    public boolean isSuccess() {
+        return error == null && result > 0;
+    }
+
+}
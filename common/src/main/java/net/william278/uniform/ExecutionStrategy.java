@@ -0,0 +1,252 @@
+/*
+ * This file is part of Uniform, licensed under the GNU General Public License v3.0.
+ *
+ *  Copyright (c) Tofaa2
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.william278.uniform;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Determines where and when a {@link CommandExecutor} runs once Brigadier has dispatched a command
+ *
+ * @since 1.4
+ */
+@FunctionalInterface
+public interface ExecutionStrategy {
+
+    /**
+     * Run the task for a command execution
+     *
+     * @param command the command being executed
+     * @param user    the user executing the command
+     * @param task    the task to run
+     * @throws RejectedExecutionException if the strategy cannot accept the task
+     */
+    void execute(@NotNull BaseCommand<?> command, @NotNull CommandUser user, @NotNull Runnable task);
+
+    /**
+     * Release any threads held by this strategy
+     */
+    default void shutdown() {
+    }
+
+    /**
+     * Whether this strategy owns the threads it runs executions on, and so may be shut down along with the Uniform
+     * instance using it. Strategies sharing an executor with other plugins must return {@code false}
+     *
+     * @return whether Uniform may shut this strategy down
+     * @since 1.4
+     */
+    default boolean isOwned() {
+        return false;
+    }
+
+    /**
+     * Whether executions that time out or are cancelled may have their thread interrupted. Strategies that run tasks
+     * on threads they don't own, such as the server thread, must return {@code false}
+     *
+     * @return whether executor threads may be interrupted
+     */
+    default boolean isInterruptible() {
+        return true;
+    }
+
+    /**
+     * Whether executions of a command that time out or are cancelled may have their thread interrupted. Strategies
+     * that resolve where to run against the command, or wrap another strategy, should answer for the strategy the
+     * command's executions actually end up on
+     *
+     * @param command the command being executed
+     * @return whether executor threads may be interrupted
+     * @since 1.4
+     */
+    default boolean isInterruptible(@NotNull BaseCommand<?> command) {
+        return isInterruptible();
+    }
+
+    /**
+     * Run executors directly on the thread Brigadier dispatched the command on
+     *
+     * @return the caller strategy
+     */
+    @NotNull
+    static ExecutionStrategy caller() {
+        return ExecutionThread.CALLER;
+    }
+
+    /**
+     * Run executors on a new, unbounded cached thread pool, owned by the strategy (the default)
+     *
+     * @return the cached strategy
+     */
+    @NotNull
+    static ExecutionStrategy cached() {
+        return owning(new ThreadPoolExecutor(
+                0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                daemonThreads("uniform-executor-")
+        ));
+    }
+
+    /**
+     * Run executors on a fixed-size pool, rejecting executions once the queue is full
+     *
+     * @param threads   the maximum number of threads
+     * @param queueSize the maximum number of executions waiting for a thread
+     * @return the bounded strategy
+     */
+    @NotNull
+    static ExecutionStrategy bounded(int threads, int queueSize) {
+        if (threads < 1 || queueSize < 0) {
+            throw new IllegalArgumentException("Bounded pools require at least one thread and a non-negative queue");
+        }
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                threads, threads, 60L, TimeUnit.SECONDS,
+                queueSize == 0 ? new SynchronousQueue<>() : new ArrayBlockingQueue<>(queueSize),
+                daemonThreads("uniform-executor-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        pool.allowCoreThreadTimeOut(true);
+        return owning(pool);
+    }
+
+    /**
+     * Run executors on a fixed-size pool that favours console and high-priority commands when saturated
+     *
+     * @param threads   the number of threads
+     * @param queueSize the maximum number of low and normal priority executions waiting for a thread
+     * @return the priority strategy
+     * @see PriorityStrategy
+     */
+    @NotNull
+    static ExecutionStrategy prioritized(int threads, int queueSize) {
+        return PriorityStrategy.builder().setThreads(threads).setQueueSize(queueSize).build();
+    }
+
+    /**
+     * Run each executor on its own virtual thread, if the runtime supports them (Java 21+)
+     * <p>
+     * Falls back to {@link #cached()} on older runtimes; check {@link #isVirtualThreadsSupported()} to tell them apart
+     *
+     * @return the virtual thread strategy
+     */
+    @NotNull
+    static ExecutionStrategy virtualThreads() {
+        return VirtualThreads.newPerTaskExecutor()
+                .map(ExecutionStrategy::owning)
+                .orElseGet(ExecutionStrategy::cached);
+    }
+
+    /**
+     * Check whether the runtime supports virtual threads
+     *
+     * @return {@code true} if {@link #virtualThreads()} runs executors on virtual threads
+     */
+    static boolean isVirtualThreadsSupported() {
+        return VirtualThreads.isSupported();
+    }
+
+    /**
+     * Serialize each user's executions, so a user never has more than one executor running at a time
+     * <p>
+     * Executions are queued on a per-user lane and handed to the delegate strategy one at a time. Users without a
+     * UUID (e.g. the console) are passed straight through to the delegate.
+     *
+     * @param delegate      the strategy that drains each lane
+     * @param maxQueueDepth the maximum number of executions a user may have running or queued
+     * @return the per-user strategy
+     */
+    @NotNull
+    static ExecutionStrategy perUser(@NotNull ExecutionStrategy delegate, int maxQueueDepth) {
+        return perUser(delegate, maxQueueDepth, Component.text(
+                "You are sending commands too quickly. Please wait before trying again.", NamedTextColor.RED
+        ));
+    }
+
+    /**
+     * Serialize each user's executions, so a user never has more than one executor running at a time
+     *
+     * @param delegate         the strategy that drains each lane
+     * @param maxQueueDepth    the maximum number of executions a user may have running or queued
+     * @param rejectionMessage the message sent to a user whose lane is full
+     * @return the per-user strategy
+     */
+    @NotNull
+    static ExecutionStrategy perUser(@NotNull ExecutionStrategy delegate, int maxQueueDepth,
+                                     @NotNull Component rejectionMessage) {
+        return new UserLaneStrategy(delegate, maxQueueDepth, rejectionMessage);
+    }
+
+    /**
+     * Run executors on an executor service, taking ownership of it: it is shut down along with the strategy (and so
+     * should not be shared with other strategies or plugins)
+     *
+     * @param executor the executor service
+     * @return the strategy
+     * @see #of(Executor)
+     */
+    @NotNull
+    static ExecutionStrategy owning(@NotNull ExecutorService executor) {
+        return new ExecutionStrategy() {
+            @Override
+            public void execute(@NotNull BaseCommand<?> command, @NotNull CommandUser user, @NotNull Runnable task) {
+                executor.execute(task);
+            }
+
+            @Override
+            public void shutdown() {
+                executor.shutdownNow();
+            }
+
+            @Override
+            public boolean isOwned() {
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Run executors on an executor whose lifecycle is managed elsewhere. The executor is never shut down by Uniform,
+     * even if it is an {@link ExecutorService}
+     *
+     * @param executor the executor
+     * @return the strategy
+     * @see #owning(ExecutorService)
+     */
+    @NotNull
+    static ExecutionStrategy of(@NotNull Executor executor) {
+        return (command, user, task) -> executor.execute(task);
+    }
+
+    @NotNull
+    private static ThreadFactory daemonThreads(@NotNull String prefix) {
+        final AtomicInteger count = new AtomicInteger();
+        return task -> {
+            final Thread thread = new Thread(task, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * This file is part of Uniform, licensed under the GNU General Public License v3.0.
+ *
+ *  Copyright (c) Tofaa2
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.william278.uniform;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+// A command execution handed to a strategy, which strategies holding it back can fail without running it
+interface ExecutionTask extends Runnable {
+
+    // Completes once the executor has finished, which for asynchronous executors is after the task returns
+    @NotNull
+    CompletableFuture<?> getResult();
+
+    // Release the execution from the tracker and fail its result
+    void reject(@NotNull RejectedExecutionException e);
+
+    static void reject(@NotNull Runnable task, @NotNull RejectedExecutionException e) {
+        if (task instanceof ExecutionTask execution) {
+            execution.reject(e);
+        }
+    }
+
+    // Wrap a task to run a callback once its execution has finished or been rejected
+    @NotNull
+    static Runnable whenDone(@NotNull Runnable task, @NotNull Runnable callback) {
+        if (!(task instanceof ExecutionTask execution)) {
+            return () -> {
+                try {
+                    task.run();
+                } finally {
+                    callback.run();
+                }
+            };
+        }
+        return new ExecutionTask() {
+            @Override
+            public void run() {
+                try {
+                    execution.run();
+                } finally {
+                    execution.getResult().whenComplete((value, error) -> callback.run());
+                }
+            }
+
+            @NotNull
+            @Override
+            public CompletableFuture<?> getResult() {
+                return execution.getResult();
+            }
+
+            @Override
+            public void reject(@NotNull RejectedExecutionException e) {
+                execution.reject(e);
+                callback.run();
+            }
+        };
+    }
+
+}
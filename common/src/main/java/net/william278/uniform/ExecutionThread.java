@@ -0,0 +1,79 @@
+/*
+ * This file is part of Uniform, licensed under the GNU General Public License v3.0.
+ *
+ *  Copyright (c) Tofaa2
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.william278.uniform;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Which thread a command executor should run on, resolved against the executing command's {@link Uniform}
+ *
+ * @since 1.4
+ */
+public enum ExecutionThread implements ExecutionStrategy {
+
+    /**
+     * Run on the server's main thread; inline with no thread hop if the command was dispatched on it. On platforms
+     * without a main thread (e.g. proxies), this is the same as {@link #CALLER}
+     */
+    MAIN {
+        @Override
+        public void execute(@NotNull BaseCommand<?> command, @NotNull CommandUser user, @NotNull Runnable task) {
+            command.getUniform().getMainThreadStrategy().execute(command, user, task);
+        }
+
+        @Override
+        public boolean isInterruptible(@NotNull BaseCommand<?> command) {
+            return command.getUniform().getMainThreadStrategy().isInterruptible(command);
+        }
+    },
+
+    /**
+     * Run using the Uniform's configured {@link ExecutionStrategy} (by default, the cached thread pool)
+     */
+    ASYNC {
+        @Override
+        public void execute(@NotNull BaseCommand<?> command, @NotNull CommandUser user, @NotNull Runnable task) {
+            command.getUniform().getExecutionStrategy().execute(command, user, task);
+        }
+
+        @Override
+        public boolean isInterruptible(@NotNull BaseCommand<?> command) {
+            return command.getUniform().getExecutionStrategy().isInterruptible(command);
+        }
+    },
+
+    /**
+     * Run on the thread Brigadier dispatched the command on
+     */
+    CALLER {
+        @Override
+        public void execute(@NotNull BaseCommand<?> command, @NotNull CommandUser user, @NotNull Runnable task) {
+            task.run();
+        }
+    };
+
+    @Override
+    public boolean isInterruptible() {
+        return false;
+    }
+
+}
@@ -0,0 +1,222 @@
+/*
+ * This file is part of Uniform, licensed under the GNU General Public License v3.0.
+ *
+ *  Copyright (c) Tofaa2
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.william278.uniform;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Keeps track of a Uniform instance's in-flight command executions, enforcing timeouts and allowing executions to be
+ * cancelled
+ *
+ * @since 1.4
+ */
+@SuppressWarnings("unused")
+public final class ExecutionTracker {
+
+    private final Set<CancellationToken> active = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, Set<CancellationToken>> byUser = new ConcurrentHashMap<>();
+    private final List<Consumer<ExecutionResult>> listeners = new CopyOnWriteArrayList<>();
+    private final Set<ExecutionStrategy> strategies = ConcurrentHashMap.newKeySet();
+    private final Object idle = new Object();
+    private volatile boolean closed;
+
+    @NotNull
+    CancellationToken register(@NotNull CommandUser user, boolean interruptible,
+                               @NotNull CompletableFuture<?> result) {
+        final CancellationToken token = new CancellationToken(
+                user.getUuid(), Thread.currentThread(), interruptible, result
+        );
+        active.add(token);
+        if (token.getUser() != null) {
+            byUser.computeIfAbsent(token.getUser(), u -> ConcurrentHashMap.newKeySet()).add(token);
+        }
+        return token;
+    }
+
+    // Owned strategies are remembered as they are used, so that command- and syntax-level ones are shut down too
+    void track(@NotNull ExecutionStrategy strategy) {
+        if (strategy.isOwned()) {
+            strategies.add(strategy);
+        }
+    }
+
+    boolean run(@NotNull CancellationToken token, @Nullable Duration timeout, @NotNull CompletableFuture<?> result,
+                @NotNull Runnable task) {
+        if (token.isCancelled()) {
+            complete(token);
+            return false;
+        }
+        if (timeout != null) {
+            result.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS).whenComplete((value, error) -> {
+                if (error instanceof TimeoutException) {
+                    token.timeout();
+                }
+            });
+        }
+        token.enter();
+        try {
+            task.run();
+        } finally {
+            token.exit();
+            // Asynchronous executors stay in flight until their result completes
+            result.whenComplete((value, error) -> complete(token));
+        }
+        return true;
+    }
+
+    void complete(@NotNull CancellationToken token) {
+        if (active.remove(token) && active.isEmpty()) {
+            synchronized (idle) {
+                idle.notifyAll();
+            }
+        }
+        final UUID user = token.getUser();
+        if (user != null) {
+            byUser.computeIfPresent(user, (u, tokens) -> {
+                tokens.remove(token);
+                return tokens.isEmpty() ? null : tokens;
+            });
+        }
+    }
+
+    void publish(@NotNull CancellationToken token, @NotNull BaseCommand<?> command, @NotNull CommandUser user,
+                 @Nullable Integer result, @Nullable Throwable error) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        final long now = System.nanoTime();
+        final Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+        final ExecutionResult outcome = new ExecutionResult(
+                command, user, cause != null || result == null ? 0 : result, cause,
+                Duration.ofNanos(token.getStartedAt() - token.getDispatchedAt()),
+                Duration.ofNanos(now - token.getDispatchedAt())
+        );
+        listeners.forEach(listener -> listener.accept(outcome));
+    }
+
+    /**
+     * Add a listener to be notified with the result and timing of each completed execution
+     *
+     * @param listener the listener
+     */
+    public void addListener(@NotNull Consumer<ExecutionResult> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(@NotNull Consumer<ExecutionResult> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Get the number of executions queued or running
+     *
+     * @return the in-flight execution count
+     */
+    public int getInFlight() {
+        return active.size();
+    }
+
+    /**
+     * Get the number of executions queued or running for a user
+     *
+     * @param user the user's UUID
+     * @return the in-flight execution count for the user
+     */
+    public int getInFlight(@NotNull UUID user) {
+        final Set<CancellationToken> tokens = byUser.get(user);
+        return tokens != null ? tokens.size() : 0;
+    }
+
+    /**
+     * Cancel all in-flight executions for a user, such as when they disconnect
+     *
+     * @param user the user's UUID
+     * @return the number of executions cancelled
+     */
+    public int cancel(@NotNull UUID user) {
+        final Set<CancellationToken> tokens = byUser.remove(user);
+        if (tokens == null) {
+            return 0;
+        }
+        tokens.forEach(CancellationToken::cancel);
+        return tokens.size();
+    }
+
+    /**
+     * Cancel every in-flight execution
+     *
+     * @return the number of executions cancelled
+     */
+    public int cancelAll() {
+        final int count = active.size();
+        active.forEach(CancellationToken::cancel);
+        return count;
+    }
+
+    void close() {
+        closed = true;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    void shutdownStrategies() {
+        strategies.forEach(ExecutionStrategy::shutdown);
+        strategies.clear();
+    }
+
+    boolean awaitIdle(@NotNull Duration timeout) {
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (idle) {
+            while (!active.isEmpty()) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(idle, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return active.isEmpty();
+                }
+            }
+        }
+        return true;
+    }
+
+}
@@ -28,12 +28,35 @@ import net.william278.uniform.element.CommandElement;
 import net.william278.uniform.element.LiteralElement;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 record Graph<S>(@NotNull Node<S> root) {
 
     static <S> @NotNull Graph<S> create(@NotNull BaseCommand<S> command) {
+        final Set<Permission> permissions = new LinkedHashSet<>();
+        collectPermissions(command, permissions);
+        final Permission[] batch = permissions.toArray(Permission[]::new);
+        applyPermissionBatch(command, batch);
         return new Graph<>(Node.command(command));
     }
 
+    private static <S> void collectPermissions(@NotNull BaseCommand<S> command, @NotNull Set<Permission> permissions) {
+        permissions.addAll(command.getPermissions());
+        for (CommandSyntax<S> syntax : command.getSyntaxes()) {
+            if (syntax.condition() instanceof CompiledCondition<S> compiled) {
+                permissions.addAll(List.of(compiled.permissions()));
+            }
+        }
+        command.getSubCommands().forEach(sub -> collectPermissions(sub, permissions));
+    }
+
+    private static <S> void applyPermissionBatch(@NotNull BaseCommand<S> command, @NotNull Permission[] batch) {
+        command.setPermissionBatch(batch);
+        command.getSubCommands().forEach(sub -> applyPermissionBatch(sub, batch));
+    }
+
     static <S> @NotNull CommandElement<S> commandToElement(@NotNull BaseCommand<S> command) {
         return new LiteralElement<>(command.getName());
     }
@@ -47,12 +70,12 @@ record Graph<S>(@NotNull Node<S> root) {
         return literalNode;
     }
 
+    // Reuses the built command's children rather than building the tree a second time
     @NotNull
-    LiteralArgumentBuilder<S> literal(@NotNull String name) {
+    static <S> LiteralArgumentBuilder<S> literal(@NotNull String name, @NotNull CommandNode<S> command) {
         final LiteralArgumentBuilder<S> builder = LiteralArgumentBuilder.literal(name);
-        final CommandNode<S> command = this.root.build();
         builder.executes(command.getCommand());
-        this.root.children().forEach(child -> builder.then(child.build()));
+        command.getChildren().forEach(builder::then);
         return builder;
     }
 
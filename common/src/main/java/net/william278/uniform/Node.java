@@ -35,6 +35,8 @@ record Node<S>(@NotNull CommandElement<S> element, @Nullable Execution<S> execut
         return ConversionNode.fromCommand(command).toNode();
     }
 
+    // Each parent gets its own copy of a subtree, even an equal one: Brigadier merges a child into a same-named node
+    // on addChild, which would change every other tree sharing that node
     @NotNull
     CommandNode<S> build() {
         ArgumentBuilder<S, ?> builder = this.element.toBuilder();
@@ -0,0 +1,211 @@
+/*
+ * This file is part of Uniform, licensed under the GNU General Public License v3.0.
+ *
+ *  Copyright (c) Tofaa2
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.william278.uniform;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.ParseResults;
+import com.mojang.brigadier.context.CommandContextBuilder;
+import com.mojang.brigadier.context.ParsedArgument;
+import com.mojang.brigadier.context.ParsedCommandNode;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Caches each source's most recent parses of a command, so the parse made to tab complete an input is reused when the
+ * source then executes it, rather than Brigadier parsing the same input again
+ * <p>
+ * Sources are compared by identity, and should be evicted with {@link #invalidate(Object)} when they disconnect.
+ * Parses are taken out of the cache when executed and expire after a few seconds. Brigadier only tests node
+ * requirements while parsing, so they are tested again before a parse is reused for execution. Only parses whose
+ * arguments are plain values (strings, numbers, booleans, enums and UUIDs) are reused for execution; arguments
+ * resolved to live objects, such as an online player, may be stale by then, so those inputs are parsed again.
+ *
+ * @param <S> the command source type
+ * @since 1.4
+ */
+@SuppressWarnings("unused")
+public final class ParseCache<S> {
+
+    public static final int DEFAULT_MAX_SOURCES = 256;
+    public static final int INPUTS_PER_SOURCE = 4;
+    public static final Duration DEFAULT_EXPIRY = Duration.ofSeconds(5);
+
+    private final int maxSources;
+    private final long expiryNanos;
+    private final Map<S, Recent<S>> sources = new IdentityHashMap<>();
+    private long nextSweep;
+    private long hits;
+    private long misses;
+
+    public ParseCache(int maxSources, @NotNull Duration expiry) {
+        if (maxSources < 1) {
+            throw new IllegalArgumentException("Parse cache size must be at least 1");
+        }
+        this.maxSources = maxSources;
+        this.expiryNanos = expiry.toNanos();
+    }
+
+    public ParseCache() {
+        this(DEFAULT_MAX_SOURCES, DEFAULT_EXPIRY);
+    }
+
+    /**
+     * Parse an input for a source, reusing and keeping the source's recent parse of the same input
+     *
+     * @param dispatcher the dispatcher to parse with on a miss
+     * @param input      the input to parse
+     * @param source     the command source
+     * @return the parse results
+     */
+    @NotNull
+    public ParseResults<S> parse(@NotNull CommandDispatcher<S> dispatcher, @NotNull String input, @NotNull S source) {
+        final ParseResults<S> cached = get(dispatcher, source, input, false);
+        if (cached != null) {
+            return cached;
+        }
+        final ParseResults<S> parse = dispatcher.parse(input, source);
+        put(dispatcher, source, input, parse);
+        return parse;
+    }
+
+    /**
+     * Take a source's recent parse of an input out of the cache, parsing it afresh if there is none
+     *
+     * @param dispatcher the dispatcher to parse with on a miss
+     * @param input      the input to parse
+     * @param source     the command source
+     * @return the parse results, to be executed
+     */
+    @NotNull
+    public ParseResults<S> take(@NotNull CommandDispatcher<S> dispatcher, @NotNull String input, @NotNull S source) {
+        final ParseResults<S> cached = get(dispatcher, source, input, true);
+        return cached != null && isReusable(cached.getContext(), source) ? cached : dispatcher.parse(input, source);
+    }
+
+    // Requirements may have stopped passing since the input was parsed (e.g. if a permission was revoked), and
+    // resolved arguments may no longer refer to a live object (e.g. if a player has since quit)
+    private static <S> boolean isReusable(@NotNull CommandContextBuilder<S> context, @NotNull S source) {
+        for (CommandContextBuilder<S> child = context; child != null; child = child.getChild()) {
+            for (ParsedCommandNode<S> node : child.getNodes()) {
+                if (!node.getNode().canUse(source)) {
+                    return false;
+                }
+            }
+            for (ParsedArgument<S, ?> argument : child.getArguments().values()) {
+                if (!isPlainValue(argument.getResult())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPlainValue(@Nullable Object value) {
+        return value == null || value instanceof String || value instanceof Number || value instanceof Boolean
+               || value instanceof Character || value instanceof Enum<?> || value instanceof UUID;
+    }
+
+    /**
+     * Drop a source's parses, such as when it disconnects
+     *
+     * @param source the command source
+     */
+    public synchronized void invalidate(@NotNull S source) {
+        sources.remove(source);
+    }
+
+    public synchronized void invalidateAll() {
+        sources.clear();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    @Nullable
+    private synchronized ParseResults<S> get(@NotNull CommandDispatcher<S> dispatcher, @NotNull S source,
+                                             @NotNull String input, boolean remove) {
+        final Recent<S> recent = sources.get(source);
+        final Entry<S> entry = recent != null ? (remove ? recent.remove(input) : recent.get(input)) : null;
+        // Parses made on another dispatcher, such as a pruned tree, are never reused
+        if (entry == null || entry.dispatcher() != dispatcher || entry.isExpired(System.nanoTime())) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.parse();
+    }
+
+    private synchronized void put(@NotNull CommandDispatcher<S> dispatcher, @NotNull S source, @NotNull String input,
+                                  @NotNull ParseResults<S> parse) {
+        final long now = System.nanoTime();
+        if (now - nextSweep >= 0) {
+            sources.values().removeIf(recent -> recent.isExpired(now));
+            nextSweep = now + expiryNanos;
+        }
+        if (!sources.containsKey(source) && sources.size() >= maxSources) {
+            sources.values().removeIf(recent -> recent.isExpired(now));
+            if (sources.size() >= maxSources) {
+                sources.clear();
+            }
+        }
+        sources.computeIfAbsent(source, s -> new Recent<>())
+                .put(input, new Entry<>(dispatcher, parse, now + expiryNanos));
+    }
+
+    private record Entry<S>(@NotNull CommandDispatcher<S> dispatcher, @NotNull ParseResults<S> parse,
+                            long expiresAt) {
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+
+    }
+
+    private static final class Recent<S> extends LinkedHashMap<String, Entry<S>> {
+
+        private Recent() {
+            super(INPUTS_PER_SOURCE * 2, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(@NotNull Map.Entry<String, Entry<S>> eldest) {
+            return size() > INPUTS_PER_SOURCE;
+        }
+
+        private boolean isExpired(long now) {
+            return values().stream().allMatch(entry -> entry.isExpired(now));
+        }
+
+    }
+
+}
@@ -73,7 +73,7 @@ public record Permission(@NotNull String node, @NotNull Default defaultValue) {
 
     @NotNull
     public <S> Predicate<S> toPredicate(@NotNull BaseCommand<S> command) {
-        return user -> command.getUser(user).checkPermission(this);
+        return user -> command.getUniform().checkPermission(command.getUser(user), this);
     }
 
 }
@@ -0,0 +1,296 @@
+/*
+ * This file is part of Uniform, licensed under the GNU General Public License v3.0.
+ *
+ *  Copyright (c) Tofaa2
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.william278.uniform;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches each user's permission decisions, so Brigadier re-testing {@code requires} predicates when sending the
+ * command tree or suggesting doesn't hit the platform's permission backend every time
+ * <p>
+ * The cache is disabled until given an expiry with {@link #setExpiry(Duration)}. Cached decisions also gate command
+ * execution, and no platform signals permission changes before re-testing the command tree, so decisions are only
+ * invalidated when the user disconnects and otherwise expire. Call {@link #invalidate(UUID)} from your permission
+ * plugin's recalculation event to apply changes sooner. Users without a UUID, such as the console, are never cached,
+ * and at most {@link #MAX_USERS} users are cached at once.
+ *
+ * @since 1.4
+ */
+@SuppressWarnings("unused")
+public final class PermissionCache {
+
+    public static final Duration DEFAULT_EXPIRY = Duration.ofSeconds(10);
+    public static final int MAX_USERS = 1024;
+    public static final int MAX_DECISIONS_PER_USER = 512;
+
+    private final Map<UUID, Map<Permission, Decision>> decisions = new ConcurrentHashMap<>();
+    private final Map<UUID, Grants> grants = new ConcurrentHashMap<>();
+    private final Map<UUID, Map<BaseCommand<?>, Fingerprint>> fingerprints = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile long expiryNanos;
+    private volatile boolean fingerprinting;
+
+    /**
+     * Check whether a user has a permission, using a cached decision if there is one
+     *
+     * @param user       the user
+     * @param permission the permission
+     * @return whether the user has the permission
+     */
+    public boolean check(@NotNull CommandUser user, @NotNull Permission permission) {
+        return check(user, permission, null);
+    }
+
+    /**
+     * Check whether a user has a permission, using a cached decision if there is one
+     * <p>
+     * On a cache miss, the whole batch is checked at once with {@link CommandUser#checkPermissions(Permission[])} and
+     * cached, so the rest of a command tree's permissions are answered from the cache
+     *
+     * @param user       the user
+     * @param permission the permission
+     * @param batch      the permissions to check along with it, such as those used by the command tree
+     * @return whether the user has the permission
+     */
+    public boolean check(@NotNull CommandUser user, @NotNull Permission permission,
+                         @NotNull Permission @Nullable [] batch) {
+        final UUID uuid = user.getUuid();
+        final long expiry = this.expiryNanos;
+        if (uuid == null || expiry <= 0) {
+            return user.checkPermission(permission);
+        }
+
+        final long now = System.nanoTime();
+        final Map<Permission, Decision> userDecisions = getDecisions(uuid, now);
+        final Decision cached = userDecisions.get(permission);
+        if (cached != null && !cached.isExpired(now)) {
+            hits.increment();
+            return cached.allowed;
+        }
+
+        misses.increment();
+        if (batch != null && batch.length > 1) {
+            makeRoom(userDecisions, batch.length, now);
+            final BitSet allowed = user.checkPermissions(batch);
+            for (int i = 0; i < batch.length; i++) {
+                userDecisions.put(batch[i], new Decision(allowed.get(i), now + expiry));
+            }
+            final Decision decision = userDecisions.get(permission);
+            if (decision != null) {
+                return decision.allowed;
+            }
+        }
+        final boolean allowed = user.checkPermission(permission);
+        makeRoom(userDecisions, 1, now);
+        userDecisions.put(permission, new Decision(allowed, now + expiry));
+        return allowed;
+    }
+
+    @NotNull
+    private Map<Permission, Decision> getDecisions(@NotNull UUID uuid, long now) {
+        final Map<Permission, Decision> existing = decisions.get(uuid);
+        if (existing != null) {
+            return existing;
+        }
+        if (decisions.size() >= MAX_USERS) {
+            decisions.values().removeIf(user -> user.values().stream().allMatch(decision -> decision.isExpired(now)));
+            if (decisions.size() >= MAX_USERS) {
+                decisions.clear();
+            }
+        }
+        return decisions.computeIfAbsent(uuid, u -> new ConcurrentHashMap<>());
+    }
+
+    private static void makeRoom(@NotNull Map<Permission, Decision> userDecisions, int count, long now) {
+        if (userDecisions.size() + count <= MAX_DECISIONS_PER_USER) {
+            return;
+        }
+        userDecisions.values().removeIf(decision -> decision.isExpired(now));
+        if (userDecisions.size() + count > MAX_DECISIONS_PER_USER) {
+            userDecisions.clear();
+        }
+    }
+
+    /**
+     * Get a user's decisions on a batch of permissions, as a fingerprint of their permission profile
+     * <p>
+     * The fingerprint is reused for as long as the decisions it was taken from are cached, so it must not be modified
+     *
+     * @param user    the user
+     * @param command the command the permissions are used by
+     * @param batch   the permissions
+     * @return a bitset with the index of each permission the user has set
+     */
+    @NotNull
+    public BitSet fingerprint(@NotNull CommandUser user, @NotNull BaseCommand<?> command,
+                              @NotNull Permission @NotNull [] batch) {
+        final UUID uuid = user.getUuid();
+        final long expiry = this.expiryNanos;
+        if (uuid == null || expiry <= 0) {
+            return user.checkPermissions(batch);
+        }
+
+        final long now = System.nanoTime();
+        final Map<BaseCommand<?>, Fingerprint> userFingerprints = fingerprints.get(uuid);
+        final Fingerprint cached = userFingerprints != null ? userFingerprints.get(command) : null;
+        if (cached != null && cached.batch == batch && now - cached.expiresAt < 0) {
+            hits.increment();
+            return cached.bits;
+        }
+
+        final BitSet fingerprint = new BitSet(batch.length);
+        for (int i = 0; i < batch.length; i++) {
+            if (check(user, batch[i], batch)) {
+                fingerprint.set(i);
+            }
+        }
+        if (userFingerprints == null && fingerprints.size() >= MAX_USERS) {
+            fingerprints.clear();
+        }
+        fingerprints.computeIfAbsent(uuid, u -> new ConcurrentHashMap<>())
+                .put(command, new Fingerprint(batch, fingerprint, now + expiry));
+        return fingerprint;
+    }
+
+    /**
+     * Set whether platforms that own their dispatcher should serve each user a command tree pre-pruned for their
+     * permission profile. Fingerprints are cached with the user's decisions, so this only takes effect while the
+     * cache is enabled
+     *
+     * @param fingerprinting whether to serve pruned trees
+     * @see PrunedTreeCache
+     */
+    public void setFingerprinting(boolean fingerprinting) {
+        this.fingerprinting = fingerprinting;
+    }
+
+    public boolean isFingerprinting() {
+        return fingerprinting;
+    }
+
+    /**
+     * Get a user's indexed permission grants, indexing them if they aren't cached
+     * <p>
+     * Unlike decisions, grants are cached whether or not the cache is enabled: the index is rebuilt whenever the
+     * granted nodes change, and dropped when the user is invalidated.
+     *
+     * @param uuid    the user's UUID
+     * @param granted the user's granted nodes, where a node prefixed with {@code -} is a negated grant
+     * @return the user's grants
+     */
+    @NotNull
+    public PermissionTrie getGrants(@NotNull UUID uuid, @NotNull Collection<String> granted) {
+        final int hash = hash(granted);
+        final Grants cached = grants.get(uuid);
+        if (cached != null && cached.hash == hash) {
+            return cached.trie;
+        }
+        final PermissionTrie trie = PermissionTrie.of(granted);
+        if (cached == null && grants.size() >= MAX_USERS) {
+            grants.clear();
+        }
+        grants.put(uuid, new Grants(trie, hash));
+        return trie;
+    }
+
+    // Order-independent, as permission lists are usually backed by hash sets
+    private static int hash(@NotNull Collection<String> granted) {
+        int hash = granted.size();
+        for (String node : granted) {
+            hash += node.hashCode();
+        }
+        return hash;
+    }
+
+    /**
+     * Drop a user's cached decisions, such as when their permissions change
+     *
+     * @param uuid the user's UUID
+     */
+    public void invalidate(@NotNull UUID uuid) {
+        decisions.remove(uuid);
+        grants.remove(uuid);
+        fingerprints.remove(uuid);
+    }
+
+    public void invalidateAll() {
+        decisions.clear();
+        grants.clear();
+        fingerprints.clear();
+    }
+
+    /**
+     * Set how long decisions are cached for, such as {@link #DEFAULT_EXPIRY}; {@link Duration#ZERO}, the default,
+     * disables the cache
+     *
+     * @param expiry the expiry time
+     */
+    public void setExpiry(@NotNull Duration expiry) {
+        this.expiryNanos = expiry.toNanos();
+        if (expiryNanos <= 0) {
+            invalidateAll();
+        }
+    }
+
+    @NotNull
+    public Duration getExpiry() {
+        return Duration.ofNanos(expiryNanos);
+    }
+
+    public boolean isEnabled() {
+        return expiryNanos > 0;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private record Decision(boolean allowed, long expiresAt) {
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+
+    }
+
+    private record Grants(@NotNull PermissionTrie trie, int hash) {
+    }
+
+    // Rebuilding a command replaces its batch, so a fingerprint only applies to the batch it was taken from
+    private record Fingerprint(@NotNull Permission @NotNull [] batch, @NotNull BitSet bits, long expiresAt) {
+    }
+
+}
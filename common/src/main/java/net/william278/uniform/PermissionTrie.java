@@ -0,0 +1,134 @@
+/*
+ * This file is part of Uniform, licensed under the GNU General Public License v3.0.
+ *
+ *  Copyright (c) Tofaa2
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.william278.uniform;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * An index of a user's permission grants over dot-separated node segments, resolving wildcard grants (e.g.
+ * {@code plugin.command.*}) in time proportional to the depth of the node being checked
+ * <p>
+ * The most specific grant wins: an exact node beats any wildcard, and a deeper wildcard beats a shallower one. A
+ * wildcard does not grant the node it is attached to, so {@code plugin.command.*} does not grant {@code plugin.command}.
+ *
+ * @since 1.4
+ */
+@SuppressWarnings("unused")
+public final class PermissionTrie {
+
+    private static final String WILDCARD = "*";
+
+    private final Segment root = new Segment();
+
+    private PermissionTrie() {
+    }
+
+    /**
+     * Index a set of grants, where a node prefixed with {@code -} is a negated grant
+     *
+     * @param granted the granted nodes
+     * @return the index
+     */
+    @NotNull
+    public static PermissionTrie of(@NotNull Collection<String> granted) {
+        final PermissionTrie trie = new PermissionTrie();
+        for (String node : granted) {
+            final boolean negated = node.startsWith("-");
+            trie.put(negated ? node.substring(1) : node, !negated);
+        }
+        return trie;
+    }
+
+    /**
+     * Index a map of nodes to their granted values
+     *
+     * @param grants the grants
+     * @return the index
+     */
+    @NotNull
+    public static PermissionTrie of(@NotNull Map<String, Boolean> grants) {
+        final PermissionTrie trie = new PermissionTrie();
+        grants.forEach(trie::put);
+        return trie;
+    }
+
+    /**
+     * Resolve the value of a node from the most specific matching grant
+     *
+     * @param node the permission node
+     * @return the granted value, or {@code null} if no grant matches
+     */
+    @Nullable
+    public Boolean resolve(@NotNull String node) {
+        Boolean match = root.wildcard;
+        Segment segment = root;
+        int start = 0;
+        final String lower = node.toLowerCase(Locale.ENGLISH);
+        while (true) {
+            final int end = lower.indexOf('.', start);
+            segment = segment.children.get(end == -1 ? lower.substring(start) : lower.substring(start, end));
+            if (segment == null) {
+                return match;
+            }
+            if (end == -1) {
+                return segment.value != null ? segment.value : match;
+            }
+            if (segment.wildcard != null) {
+                match = segment.wildcard;
+            }
+            start = end + 1;
+        }
+    }
+
+    public boolean check(@NotNull Permission permission, boolean op) {
+        final Boolean value = resolve(permission.node());
+        return value != null ? value : permission.defaultValue().check(op);
+    }
+
+    private void put(@NotNull String node, boolean value) {
+        Segment segment = root;
+        final String[] parts = node.toLowerCase(Locale.ENGLISH).split("\\.");
+        for (int i = 0; i < parts.length; i++) {
+            if (parts[i].equals(WILDCARD) && i == parts.length - 1) {
+                segment.wildcard = value;
+                return;
+            }
+            segment = segment.children.computeIfAbsent(parts[i], s -> new Segment());
+        }
+        segment.value = value;
+    }
+
+    private static final class Segment {
+        private final Map<String, Segment> children = new HashMap<>();
+        @Nullable
+        private Boolean value;
+        @Nullable
+        private Boolean wildcard;
+    }
+
+}
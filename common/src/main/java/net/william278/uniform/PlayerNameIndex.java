@@ -0,0 +1,140 @@
+/*
+ * This file is part of Uniform, licensed under the GNU General Public License v3.0.
+ *
+ *  Copyright (c) Tofaa2
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.william278.uniform;
+
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+/**
+ * An index of online players by name, kept up to date by the platform as players join and quit, so player arguments
+ * don't walk every online player on each keystroke
+ * <p>
+ * Names are matched ignoring case. Exact names resolve with a hash lookup, and prefixes with a sorted range query.
+ *
+ * @param <P> the player type
+ * @since 1.4
+ */
+@SuppressWarnings("unused")
+public final class PlayerNameIndex<P> {
+
+    private final Function<P, String> nameFunction;
+    private final Map<String, P> exact = new ConcurrentHashMap<>();
+    private final NavigableMap<String, P> sorted = new ConcurrentSkipListMap<>();
+
+    public PlayerNameIndex(@NotNull Function<P, String> nameFunction) {
+        this.nameFunction = nameFunction;
+    }
+
+    public void add(@NotNull P player) {
+        final String key = key(nameFunction.apply(player));
+        exact.put(key, player);
+        sorted.put(key, player);
+    }
+
+    public void addAll(@NotNull Iterable<? extends P> players) {
+        players.forEach(this::add);
+    }
+
+    /**
+     * Remove a player, unless their name has since been taken by another player instance, such as when they log in
+     * again before their old connection is closed
+     *
+     * @param player the player
+     */
+    public void remove(@NotNull P player) {
+        final String key = key(nameFunction.apply(player));
+        exact.remove(key, player);
+        sorted.remove(key, player);
+    }
+
+    public void clear() {
+        exact.clear();
+        sorted.clear();
+    }
+
+    /**
+     * Get an online player by their exact name, ignoring case
+     *
+     * @param name the name
+     * @return the player, or {@code null} if no player has the name
+     */
+    @Nullable
+    public P get(@NotNull String name) {
+        return exact.get(key(name));
+    }
+
+    /**
+     * Get the online players whose names start with a prefix, ignoring case
+     *
+     * @param prefix the prefix
+     * @param limit  the maximum number of players to return
+     * @return the players, ordered by name
+     */
+    @NotNull
+    public List<P> match(@NotNull String prefix, int limit) {
+        final String key = key(prefix);
+        final List<P> matches = new ArrayList<>(Math.min(limit, 16));
+        for (P player : sorted.subMap(key, true, key + Character.MAX_VALUE, false).values()) {
+            if (matches.size() >= limit) {
+                break;
+            }
+            matches.add(player);
+        }
+        return matches;
+    }
+
+    /**
+     * Suggest the names of online players matching what has been typed
+     *
+     * @param builder the suggestions builder
+     * @return the suggestions
+     */
+    @NotNull
+    public CompletableFuture<Suggestions> suggest(@NotNull SuggestionsBuilder builder) {
+        final int limit = builder instanceof BoundedSuggestionsBuilder bounded
+                ? bounded.getCapacity() + 1 : Integer.MAX_VALUE;
+        match(builder.getRemaining(), limit).forEach(player -> builder.suggest(nameFunction.apply(player)));
+        return builder.buildFuture();
+    }
+
+    public int size() {
+        return exact.size();
+    }
+
+    @NotNull
+    private static String key(@NotNull String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+}
@@ -0,0 +1,206 @@
+/*
+ * This file is part of Uniform, licensed under the GNU General Public License v3.0.
+ *
+ *  Copyright (c) Tofaa2
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.william278.uniform;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * An {@link ExecutionStrategy} backed by a fixed-size pool that runs queued executions in order of
+ * {@link ExecutionPriority}, so console and staff commands don't wait behind a flood of player commands
+ * <p>
+ * By default, a command's declared {@link BaseCommand#getExecutionPriority() priority} is used; otherwise, console
+ * executions are {@link ExecutionPriority#HIGHEST} and users are ranked by the highest permission tier they hold.
+ * Once the queue is full, {@link ExecutionPriority#LOW} and {@link ExecutionPriority#NORMAL} executions are rejected,
+ * while higher priorities are still admitted.
+ *
+ * @since 1.4
+ */
+@SuppressWarnings("unused")
+public final class PriorityStrategy implements ExecutionStrategy {
+
+    private final ThreadPoolExecutor pool;
+    private final int queueSize;
+    private final BiFunction<BaseCommand<?>, CommandUser, ExecutionPriority> priorityResolver;
+    private final AtomicLong sequence = new AtomicLong();
+
+    private PriorityStrategy(@NotNull Builder builder) {
+        final AtomicInteger count = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(
+                builder.threads, builder.threads, 60L, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<>(),
+                task -> {
+                    final Thread thread = new Thread(task, "uniform-priority-executor-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.pool.allowCoreThreadTimeOut(true);
+        this.queueSize = builder.queueSize;
+        this.priorityResolver = builder.priorityResolver != null
+                ? builder.priorityResolver
+                : defaultResolver(List.copyOf(builder.tiers));
+    }
+
+    @NotNull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public void execute(@NotNull BaseCommand<?> command, @NotNull CommandUser user, @NotNull Runnable task) {
+        final ExecutionPriority priority = priorityResolver.apply(command, user);
+        if (!priority.isReserved() && pool.getQueue().size() >= queueSize) {
+            throw new RejectedExecutionException("Priority executor queue is full");
+        }
+        pool.execute(new Prioritized(priority, sequence.getAndIncrement(), task));
+    }
+
+    @Override
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Override
+    public boolean isOwned() {
+        return true;
+    }
+
+    /**
+     * Get the number of executions waiting for a thread
+     *
+     * @return the queued execution count
+     */
+    public int getQueued() {
+        return pool.getQueue().size();
+    }
+
+    @NotNull
+    private static BiFunction<BaseCommand<?>, CommandUser, ExecutionPriority> defaultResolver(
+            @NotNull List<Map.Entry<Permission, ExecutionPriority>> tiers) {
+        return (command, user) -> {
+            if (command.getExecutionPriority() != null) {
+                return command.getExecutionPriority();
+            }
+            if (user.isConsole()) {
+                return ExecutionPriority.HIGHEST;
+            }
+            ExecutionPriority priority = ExecutionPriority.NORMAL;
+            for (Map.Entry<Permission, ExecutionPriority> tier : tiers) {
+                if (tier.getValue().compareTo(priority) > 0 && user.checkPermission(tier.getKey())) {
+                    priority = tier.getValue();
+                }
+            }
+            return priority;
+        };
+    }
+
+    // Orders by priority, then by submission so executions of equal priority stay first-come, first-served
+    private record Prioritized(@NotNull ExecutionPriority priority, long sequence,
+                               @NotNull Runnable task) implements Runnable, Comparable<Prioritized> {
+
+        @Override
+        public void run() {
+            task.run();
+        }
+
+        @Override
+        public int compareTo(@NotNull Prioritized other) {
+            final int byPriority = other.priority.compareTo(priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+
+    }
+
+    public static final class Builder {
+
+        private int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        private int queueSize = 256;
+        private final List<Map.Entry<Permission, ExecutionPriority>> tiers = new ArrayList<>();
+        private BiFunction<BaseCommand<?>, CommandUser, ExecutionPriority> priorityResolver;
+
+        private Builder() {
+        }
+
+        @NotNull
+        public Builder setThreads(int threads) {
+            if (threads < 1) {
+                throw new IllegalArgumentException("Priority pools require at least one thread");
+            }
+            this.threads = threads;
+            return this;
+        }
+
+        @NotNull
+        public Builder setQueueSize(int queueSize) {
+            if (queueSize < 0) {
+                throw new IllegalArgumentException("Queue size must not be negative");
+            }
+            this.queueSize = queueSize;
+            return this;
+        }
+
+        /**
+         * Give users holding a permission a higher priority; the highest tier a user holds applies
+         *
+         * @param permission the permission
+         * @param priority   the priority of users with the permission
+         * @return the builder
+         */
+        @NotNull
+        public Builder addPermissionTier(@NotNull Permission permission, @NotNull ExecutionPriority priority) {
+            this.tiers.add(Map.entry(permission, priority));
+            return this;
+        }
+
+        /**
+         * Replace the default priority resolution (declared priority, console, then permission tiers)
+         *
+         * @param priorityResolver function resolving the priority of an execution
+         * @return the builder
+         */
+        @NotNull
+        public Builder setPriorityResolver(
+                @NotNull BiFunction<BaseCommand<?>, CommandUser, ExecutionPriority> priorityResolver) {
+            this.priorityResolver = priorityResolver;
+            return this;
+        }
+
+        @NotNull
+        public PriorityStrategy build() {
+            return new PriorityStrategy(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * This file is part of Uniform, licensed under the GNU General Public License v3.0.
+ *
+ *  Copyright (c) Tofaa2
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.william278.uniform;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.builder.ArgumentBuilder;
+import com.mojang.brigadier.tree.CommandNode;
+import com.mojang.brigadier.tree.RootCommandNode;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Caches copies of a command's tree pruned to what each permission profile can see, so users with the same
+ * permissions share one precomputed view instead of Brigadier testing every node's permissions for each of them
+ * <p>
+ * A user's profile is the fingerprint of their decisions on the distinct permissions used by the command tree. Only
+ * permission checks are pruned, and removed from the pruned nodes; scopes and custom conditions are still tested by
+ * Brigadier. Pruned trees must therefore never be used to execute commands. Trees are only served when the
+ * {@link PermissionCache} is enabled with {@link PermissionCache#setFingerprinting(boolean) fingerprinting}, and
+ * only for suggestions: the command tree sent to clients is built by the platform.
+ *
+ * @param <S> the command source type
+ * @since 1.4
+ */
+@SuppressWarnings("unused")
+public final class PrunedTreeCache<S> {
+
+    private static final int MAX_PROFILES = 64;
+
+    private final BaseCommand<S> command;
+    private final CommandDispatcher<S> dispatcher;
+    @Nullable
+    private final Permission[] batch;
+    private final Map<Permission, Integer> indices = new HashMap<>();
+    private final Map<BitSet, CommandDispatcher<S>> pruned = new ConcurrentHashMap<>();
+
+    /**
+     * Create a cache for a command registered to a dispatcher
+     *
+     * @param command    the command, already built into the dispatcher
+     * @param dispatcher the dispatcher holding the full command tree
+     */
+    public PrunedTreeCache(@NotNull BaseCommand<S> command, @NotNull CommandDispatcher<S> dispatcher) {
+        this.command = command;
+        this.dispatcher = dispatcher;
+        this.batch = command.getPermissionBatch();
+        if (batch != null) {
+            for (int i = 0; i < batch.length; i++) {
+                indices.putIfAbsent(batch[i], i);
+            }
+        }
+    }
+
+    /**
+     * Get a dispatcher holding the command tree as visible to a source
+     *
+     * @param source the command source
+     * @return the pruned dispatcher, or the full dispatcher if the permission cache or fingerprinting is disabled
+     */
+    @NotNull
+    public CommandDispatcher<S> getDispatcher(@NotNull S source) {
+        // Without cached fingerprints, pruning would test every permission of the command on each keystroke
+        final PermissionCache cache = command.getUniform().getPermissionCache();
+        if (!cache.isEnabled() || !cache.isFingerprinting() || batch == null || batch.length == 0) {
+            return dispatcher;
+        }
+
+        final BitSet fingerprint = cache.fingerprint(command.getUser(source), command, batch);
+        final CommandDispatcher<S> cached = pruned.get(fingerprint);
+        if (cached != null) {
+            return cached;
+        }
+        if (pruned.size() >= MAX_PROFILES) {
+            pruned.clear();
+        }
+        return pruned.computeIfAbsent(fingerprint, this::prune);
+    }
+
+    /**
+     * Drop the cached trees, such as when the command's permissions change
+     */
+    public void invalidate() {
+        pruned.clear();
+    }
+
+    public int size() {
+        return pruned.size();
+    }
+
+    @NotNull
+    private CommandDispatcher<S> prune(@NotNull BitSet fingerprint) {
+        // Only this command's tree is pruned, as the dispatcher may be shared with other commands
+        final RootCommandNode<S> root = new RootCommandNode<>();
+        final CommandNode<S> child = dispatcher.getRoot().getChild(command.getName());
+        final CommandNode<S> node = child != null ? prune(child, fingerprint) : null;
+        if (node != null) {
+            root.addChild(node);
+        }
+        return new CommandDispatcher<>(root);
+    }
+
+    @Nullable
+    private CommandNode<S> prune(@NotNull CommandNode<S> node, @NotNull BitSet fingerprint) {
+        if (!isPermitted(node.getRequirement(), fingerprint)) {
+            return null;
+        }
+        if (node.getRedirect() != null) {
+            return node;
+        }
+        final ArgumentBuilder<S, ?> builder = node.createBuilder();
+        if (node.getRequirement() instanceof CompiledCondition<S> condition) {
+            // The permissions have just been checked against the profile, so Brigadier needn't test them again
+            builder.requires(condition.withoutPermissions());
+        }
+        for (CommandNode<S> child : node.getChildren()) {
+            final CommandNode<S> pruned = prune(child, fingerprint);
+            if (pruned != null) {
+                builder.then(pruned);
+            }
+        }
+        return builder.build();
+    }
+
+    private boolean isPermitted(@Nullable Predicate<S> requirement, @NotNull BitSet fingerprint) {
+        if (!(requirement instanceof CompiledCondition<S> condition)) {
+            return true;
+        }
+        for (Permission permission : condition.permissions()) {
+            final Integer index = indices.get(permission);
+            if (index != null && !fingerprint.get(index)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
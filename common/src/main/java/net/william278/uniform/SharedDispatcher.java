@@ -0,0 +1,95 @@
+/*
+ * This file is part of Uniform, licensed under the GNU General Public License v3.0.
+ *
+ *  Copyright (c) Tofaa2
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.william278.uniform;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.tree.CommandNode;
+import com.mojang.brigadier.tree.RootCommandNode;
+import lombok.Getter;
+import lombok.Setter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A dispatcher shared by all the commands a platform registers, so each platform command becomes a thin router into
+ * one command tree rather than owning a dispatcher of its own
+ * <p>
+ * Sharing is opt-in and must be {@link #setEnabled(boolean) enabled} before commands are registered. While disabled,
+ * or if a command's name is already taken in the shared tree, the command is given its own dispatcher.
+ *
+ * @param <S> the command source type
+ * @since 1.4
+ */
+@SuppressWarnings("unused")
+public final class SharedDispatcher<S> {
+
+    @Getter
+    private final CommandDispatcher<S> dispatcher = new CommandDispatcher<>();
+    @Getter
+    @Setter
+    private boolean enabled;
+
+    /**
+     * Register a command, returning the dispatcher it was registered to
+     *
+     * @param command the command to register
+     * @return the shared dispatcher, or a new dispatcher holding only the command
+     */
+    @NotNull
+    public CommandDispatcher<S> register(@NotNull BaseCommand<S> command) {
+        if (enabled) {
+            synchronized (dispatcher) {
+                // Brigadier merges nodes with the same name, so re-registered commands can't share the tree
+                if (dispatcher.getRoot().getChild(command.getName()) == null) {
+                    dispatcher.register(command.createBuilder());
+                    return dispatcher;
+                }
+            }
+        }
+        final CommandDispatcher<S> own = new CommandDispatcher<>();
+        own.register(command.createBuilder());
+        return own;
+    }
+
+    /**
+     * Get the usage lines of one command in a dispatcher, without walking the other commands it holds
+     *
+     * @param dispatcher the dispatcher holding the command
+     * @param name       the command name
+     * @param source     the source to get usage for
+     * @return the usage lines, each prefixed with a slash
+     */
+    @NotNull
+    public static <S> Collection<String> getUsage(@NotNull CommandDispatcher<S> dispatcher, @NotNull String name,
+                                                  @NotNull S source) {
+        final CommandNode<S> node = dispatcher.getRoot().getChild(name);
+        if (node == null) {
+            return List.of();
+        }
+        final RootCommandNode<S> root = new RootCommandNode<>();
+        root.addChild(node);
+        return dispatcher.getSmartUsage(root, source).values().stream().map("/%s"::formatted).toList();
+    }
+
+}
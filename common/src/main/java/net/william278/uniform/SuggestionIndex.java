@@ -0,0 +1,204 @@
+/*
+ * This file is part of Uniform, licensed under the GNU General Public License v3.0.
+ *
+ *  Copyright (c) Tofaa2
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.william278.uniform;
+
+import com.mojang.brigadier.suggestion.SuggestionProvider;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An immutable index of suggestion values sorted by their lowercase text, so the values matching what a user has
+ * typed are found with a binary search rather than by testing every value
+ * <p>
+ * Values are matched by prefix, ignoring case. Values may also be indexed from each word start after a separator,
+ * so that {@code oak_log} is suggested for {@code log} as well as for {@code oak}.
+ *
+ * @since 1.4
+ */
+@SuppressWarnings("unused")
+public final class SuggestionIndex {
+
+    private final String[] values;
+    private final String[] keys;
+    private final int[] indices;
+    private final boolean words;
+
+    private SuggestionIndex(@NotNull Collection<String> values, char @NotNull [] separators) {
+        this.values = new LinkedHashSet<>(values).toArray(String[]::new);
+        final List<Key> keys = new ArrayList<>(this.values.length);
+        for (int i = 0; i < this.values.length; i++) {
+            final String lower = this.values[i].toLowerCase(Locale.ROOT);
+            keys.add(new Key(lower, i));
+            for (int c = 0; c < lower.length() - 1; c++) {
+                if (isSeparator(lower.charAt(c), separators)) {
+                    keys.add(new Key(lower.substring(c + 1), i));
+                }
+            }
+        }
+        keys.sort(null);
+        this.keys = keys.stream().map(Key::text).toArray(String[]::new);
+        this.indices = keys.stream().mapToInt(Key::index).toArray();
+        this.words = keys.size() > this.values.length;
+    }
+
+    /**
+     * Index values by prefix
+     *
+     * @param values the values
+     * @return the index
+     */
+    @NotNull
+    public static SuggestionIndex of(@NotNull Collection<String> values) {
+        return new SuggestionIndex(values, new char[0]);
+    }
+
+    /**
+     * Index values by prefix and by the start of each word following a separator
+     *
+     * @param values     the values
+     * @param separators the characters separating words, such as {@code '_'}
+     * @return the index
+     */
+    @NotNull
+    public static SuggestionIndex byWords(@NotNull Collection<String> values, char @NotNull ... separators) {
+        return new SuggestionIndex(values, separators);
+    }
+
+    /**
+     * Index the names of an enum's constants by prefix
+     *
+     * @param enumClass the enum class
+     * @return the index
+     */
+    @NotNull
+    public static SuggestionIndex of(@NotNull Class<? extends Enum<?>> enumClass) {
+        return of(Arrays.stream(enumClass.getEnumConstants()).map(Enum::name).toList());
+    }
+
+    /**
+     * Get the values matching a prefix
+     *
+     * @param prefix the prefix, ignoring case
+     * @param limit  the maximum number of values to return
+     * @return the matching values
+     */
+    @NotNull
+    public List<String> match(@NotNull String prefix, int limit) {
+        final String lower = prefix.toLowerCase(Locale.ROOT);
+        final List<String> matches = new ArrayList<>(Math.min(limit, 16));
+        final BitSet seen = words ? new BitSet(values.length) : null;
+        for (int i = lowerBound(lower); i < keys.length && matches.size() < limit && keys[i].startsWith(lower); i++) {
+            if (seen == null || !seen.get(indices[i])) {
+                if (seen != null) seen.set(indices[i]);
+                matches.add(values[indices[i]]);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Suggest the values matching what has been typed
+     *
+     * @param builder the suggestions builder
+     * @param limit   the maximum number of values to suggest
+     * @return the suggestions
+     */
+    @NotNull
+    public CompletableFuture<Suggestions> suggest(@NotNull SuggestionsBuilder builder, int limit) {
+        if (builder instanceof BoundedSuggestionsBuilder bounded) {
+            // One past the capacity, so the builder knows there were more matches
+            limit = Math.min(limit, bounded.getCapacity() + 1);
+        }
+        match(builder.getRemainingLowerCase(), limit).forEach(builder::suggest);
+        return builder.buildFuture();
+    }
+
+    @NotNull
+    public CompletableFuture<Suggestions> suggest(@NotNull SuggestionsBuilder builder) {
+        return suggest(builder, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get a suggestion provider backed by this index
+     *
+     * @param limit the maximum number of values to suggest
+     * @param <S>   the command source type
+     * @return the suggestion provider
+     */
+    @NotNull
+    public <S> SuggestionProvider<S> provider(int limit) {
+        return (context, builder) -> suggest(builder, limit);
+    }
+
+    @NotNull
+    public <S> SuggestionProvider<S> provider() {
+        return provider(Integer.MAX_VALUE);
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    // Index of the first key not less than the prefix; all keys starting with the prefix follow it
+    private int lowerBound(@NotNull String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static boolean isSeparator(char c, char @NotNull [] separators) {
+        for (char separator : separators) {
+            if (c == separator) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Key(@NotNull String text, int index) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(@NotNull Key other) {
+            return text.compareTo(other.text);
+        }
+
+    }
+
+}
@@ -23,11 +23,15 @@ package net.william278.uniform;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.UUID;
 import java.util.function.Function;
 
 public interface Uniform {
 
+    Duration DEFAULT_DRAIN_TIMEOUT = Duration.ofSeconds(5);
+
     void register(@NotNull Command... commands);
 
     default void register(@NotNull Object... annotated) {
@@ -44,8 +48,89 @@ public interface Uniform {
 
     void setCommandUserSupplier(@NotNull Function<Object, CommandUser> supplier);
 
+    @NotNull
+    CommandUserCache getCommandUserCache();
+
+    /**
+     * Get the (cached) command user for a command source
+     *
+     * @param source the command source
+     * @return the command user
+     * @since 1.4
+     */
+    @NotNull
+    default CommandUser getUser(@NotNull Object source) {
+        return getCommandUserCache().get(source, getCommandUserSupplier());
+    }
+
+    @NotNull
+    PermissionCache getPermissionCache();
+
+    /**
+     * Check whether a user has a permission, using the permission cache
+     *
+     * @param user       the user
+     * @param permission the permission
+     * @return whether the user has the permission
+     * @since 1.4
+     */
+    default boolean checkPermission(@NotNull CommandUser user, @NotNull Permission permission) {
+        return getPermissionCache().check(user, permission);
+    }
+
+    @NotNull
+    ExecutionStrategy getExecutionStrategy();
+
+    void setExecutionStrategy(@NotNull ExecutionStrategy strategy);
+
+    @NotNull
+    default ExecutionStrategy getMainThreadStrategy() {
+        return ExecutionStrategy.caller();
+    }
+
+    @NotNull
+    ExecutionTracker getExecutionTracker();
+
+    default void onUserDisconnect(@NotNull UUID uuid) {
+        getExecutionTracker().cancel(uuid);
+        getCommandUserCache().invalidate(uuid);
+        getPermissionCache().invalidate(uuid);
+    }
+
+    /**
+     * Shut down this instance's executors without blocking the calling thread
+     * <p>
+     * New executions are rejected, and in-flight ones are cancelled, straight away. To give in-flight executions time
+     * to finish, call {@link #shutdown(Duration)} first (e.g. at the start of your plugin's disable hook).
+     *
+     * @see #shutdown(Duration)
+     */
     default void shutdown() {
-        BaseCommand.CACHED_EXECUTOR.shutdownNow();
+        shutdown(Duration.ZERO);
+    }
+
+    /**
+     * Shut down this instance's executors, without affecting other plugins using Uniform
+     * <p>
+     * New executions are rejected straight away. In-flight executions are given up to the drain timeout to finish,
+     * after which they are cancelled. Executions waiting on the main thread cannot finish while this blocks it.
+     * The instance's strategy and any command- or syntax-level strategies that have run executions are shut down if
+     * they own their threads (see {@link ExecutionStrategy#isOwned()}).
+     *
+     * @param drainTimeout how long to wait for in-flight executions to finish
+     * @return {@code true} if every in-flight execution finished within the timeout
+     * @since 1.4
+     */
+    default boolean shutdown(@NotNull Duration drainTimeout) {
+        final ExecutionTracker tracker = getExecutionTracker();
+        tracker.close();
+        final boolean drained = tracker.awaitIdle(drainTimeout);
+        if (!drained) {
+            tracker.cancelAll();
+        }
+        tracker.track(getExecutionStrategy());
+        tracker.shutdownStrategies();
+        return drained;
     }
 
 }
@@ -0,0 +1,194 @@
+/*
+ * This file is part of Uniform, licensed under the GNU General Public License v3.0.
+ *
+ *  Copyright (c) Tofaa2
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.william278.uniform;
+
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+// Serializes each user's executions onto a lane, with lanes drained by a shared delegate strategy
+final class UserLaneStrategy implements ExecutionStrategy {
+
+    private final ExecutionStrategy delegate;
+    private final int maxQueueDepth;
+    private final Component rejectionMessage;
+    private final Map<UUID, Lane> lanes = new ConcurrentHashMap<>();
+
+    UserLaneStrategy(@NotNull ExecutionStrategy delegate, int maxQueueDepth, @NotNull Component rejectionMessage) {
+        if (maxQueueDepth < 1) {
+            throw new IllegalArgumentException("Per-user lanes must accept at least one execution");
+        }
+        this.delegate = delegate;
+        this.maxQueueDepth = maxQueueDepth;
+        this.rejectionMessage = rejectionMessage;
+    }
+
+    @Override
+    public void execute(@NotNull BaseCommand<?> command, @NotNull CommandUser user, @NotNull Runnable task) {
+        final UUID uuid = user.getUuid();
+        if (uuid == null) {
+            delegate.execute(command, user, task);
+            return;
+        }
+
+        final Entry entry = new Entry(command, user, task);
+        while (true) {
+            final Lane lane = lanes.computeIfAbsent(uuid, Lane::new);
+            switch (lane.offer(entry)) {
+                case RETIRED -> {
+                    continue;
+                }
+                case REJECTED -> {
+                    user.getAudience().sendMessage(rejectionMessage);
+                    throw new RejectedExecutionException("Execution lane for " + uuid + " is full");
+                }
+                case STARTED -> lane.scheduleNext(false);
+                case QUEUED -> {
+                }
+            }
+            return;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public boolean isOwned() {
+        return delegate.isOwned();
+    }
+
+    @Override
+    public boolean isInterruptible() {
+        return delegate.isInterruptible();
+    }
+
+    @Override
+    public boolean isInterruptible(@NotNull BaseCommand<?> command) {
+        return delegate.isInterruptible(command);
+    }
+
+    private enum Offer {
+        STARTED,
+        QUEUED,
+        REJECTED,
+        RETIRED
+    }
+
+    private record Entry(@NotNull BaseCommand<?> command, @NotNull CommandUser user, @NotNull Runnable task) {
+    }
+
+    private final class Lane {
+
+        private final UUID uuid;
+        private final Queue<Entry> pending = new ArrayDeque<>();
+        private boolean running;
+        private boolean retired;
+
+        private Lane(@NotNull UUID uuid) {
+            this.uuid = uuid;
+        }
+
+        @NotNull
+        private synchronized Offer offer(@NotNull Entry entry) {
+            if (retired) {
+                return Offer.RETIRED;
+            }
+            if (pending.size() >= maxQueueDepth) {
+                return Offer.REJECTED;
+            }
+            pending.add(entry);
+            if (running) {
+                return Offer.QUEUED;
+            }
+            running = true;
+            return Offer.STARTED;
+        }
+
+        // The head of the queue is the entry currently running
+        private void scheduleNext(boolean onWorker) {
+            final Entry next;
+            synchronized (this) {
+                next = pending.peek();
+            }
+            if (next == null) {
+                return;
+            }
+            // The lane advances once the execution finishes, including any asynchronous work
+            final Runnable task = ExecutionTask.whenDone(next.task(), this::advance);
+            try {
+                delegate.execute(next.command(), next.user(), task);
+            } catch (RejectedExecutionException e) {
+                // Already-accepted executions keep draining on the worker thread we are on
+                if (onWorker) {
+                    task.run();
+                    return;
+                }
+
+                // Otherwise, the caller fails the head, and the executions queued behind it are failed here
+                final List<Entry> dropped;
+                synchronized (this) {
+                    pending.poll();
+                    dropped = List.copyOf(pending);
+                    pending.clear();
+                    retire();
+                }
+                if (!dropped.isEmpty()) {
+                    dropped.forEach(entry -> ExecutionTask.reject(entry.task(), e));
+                    next.user().getAudience().sendMessage(rejectionMessage);
+                }
+                throw e;
+            }
+        }
+
+        private void advance() {
+            final boolean more;
+            synchronized (this) {
+                pending.poll();
+                more = !pending.isEmpty();
+                if (!more) {
+                    retire();
+                }
+            }
+            if (more) {
+                scheduleNext(true);
+            }
+        }
+
+        private void retire() {
+            running = false;
+            retired = true;
+            lanes.remove(uuid, this);
+        }
+
+    }
+
+}
@@ -22,6 +22,7 @@
 package net.william278.uniform.annotations;
 
 import net.william278.uniform.Command;
+import net.william278.uniform.ExecutionThread;
 
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
@@ -34,5 +35,7 @@ public @interface Syntax {
 
     PermissionNode permission() default @PermissionNode("");
     Command.ExecutionScope scope() default Command.ExecutionScope.ALL;
+    long timeoutMillis() default 0;
+    ExecutionThread thread() default ExecutionThread.ASYNC;
 
 }
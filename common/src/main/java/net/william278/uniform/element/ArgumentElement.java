@@ -23,6 +23,8 @@ package net.william278.uniform.element;
 
 
 import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.arguments.BoolArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.ArgumentBuilder;
 import com.mojang.brigadier.builder.RequiredArgumentBuilder;
 import com.mojang.brigadier.suggestion.SuggestionProvider;
@@ -30,9 +32,12 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.Accessors;
+import net.william278.uniform.BoundedSuggestionsBuilder;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Objects;
+
 @Accessors(fluent = true)
 @Getter
 @AllArgsConstructor
@@ -55,4 +60,48 @@ public final class ArgumentElement<S, T> implements CommandElement<S> {
         return builder;
     }
 
+    /**
+     * Get a copy of this element that suggests at most a number of values. Its suggestion provider is passed a
+     * {@link BoundedSuggestionsBuilder}, so it can stop early once the builder is full.
+     *
+     * @param maxSuggestions the maximum number of suggestions
+     * @return the limited element
+     */
+    @NotNull
+    public ArgumentElement<S, T> withMaxSuggestions(int maxSuggestions) {
+        final SuggestionProvider<S> provider = this.suggestionProvider != null ? this.suggestionProvider
+                : (context, builder) -> this.type.listSuggestions(context, builder);
+        return new ArgumentElement<>(name, type, BoundedSuggestionsBuilder.limit(provider, maxSuggestions), custom);
+    }
+
+    /**
+     * Two argument elements are equal when they share a name, an equivalent argument type and the same suggestion
+     * provider instance, so syntaxes that start with the same arguments can share their nodes
+     *
+     * @param o the object to compare to
+     * @return whether the elements are structurally equal
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ArgumentElement<?, ?> other)) return false;
+        return custom == other.custom && name.equals(other.name)
+               && suggestionProvider == other.suggestionProvider && sameType(type, other.type);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, type.getClass(), custom);
+    }
+
+    // StringArgumentType and BoolArgumentType don't implement equals, so compare them by what they parse
+    private static boolean sameType(@NotNull ArgumentType<?> a, @NotNull ArgumentType<?> b) {
+        if (a == b || a.equals(b)) return true;
+        if (a.getClass() != b.getClass()) return false;
+        if (a instanceof StringArgumentType string) {
+            return string.getType() == ((StringArgumentType) b).getType();
+        }
+        return a instanceof BoolArgumentType;
+    }
+
 }
\ No newline at end of file
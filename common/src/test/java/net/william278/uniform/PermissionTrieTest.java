@@ -0,0 +1,89 @@
+/*
+ * This file is part of Uniform, licensed under the GNU General Public License v3.0.
+ *
+ *  Copyright (c) Tofaa2
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.william278.uniform;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PermissionTrieTest {
+
+    @Test
+    void exactGrantBeatsWildcard() {
+        final PermissionTrie trie = PermissionTrie.of(List.of("plugin.*", "-plugin.command"));
+        assertEquals(Boolean.FALSE, trie.resolve("plugin.command"));
+        assertEquals(Boolean.TRUE, trie.resolve("plugin.other"));
+    }
+
+    @Test
+    void deeperWildcardBeatsShallowerWildcard() {
+        final PermissionTrie trie = PermissionTrie.of(List.of("plugin.*", "-plugin.admin.*"));
+        assertEquals(Boolean.FALSE, trie.resolve("plugin.admin.reload"));
+        assertEquals(Boolean.TRUE, trie.resolve("plugin.user.reload"));
+        assertEquals(Boolean.TRUE, trie.resolve("plugin.admin"));
+    }
+
+    @Test
+    void negatedWildcardIsOverriddenByExactGrant() {
+        final PermissionTrie trie = PermissionTrie.of(Map.of("plugin.*", false, "plugin.help", true));
+        assertEquals(Boolean.TRUE, trie.resolve("plugin.help"));
+        assertEquals(Boolean.FALSE, trie.resolve("plugin.reload"));
+    }
+
+    @Test
+    void wildcardDoesNotGrantItsOwnNode() {
+        final PermissionTrie trie = PermissionTrie.of(List.of("plugin.command.*"));
+        assertNull(trie.resolve("plugin.command"));
+        assertEquals(Boolean.TRUE, trie.resolve("plugin.command.sub"));
+    }
+
+    @Test
+    void rootWildcardGrantsEverything() {
+        final PermissionTrie trie = PermissionTrie.of(List.of("*", "-plugin.admin"));
+        assertEquals(Boolean.TRUE, trie.resolve("anything.at.all"));
+        assertEquals(Boolean.FALSE, trie.resolve("plugin.admin"));
+    }
+
+    @Test
+    void nodesAreCaseInsensitive() {
+        final PermissionTrie trie = PermissionTrie.of(List.of("Plugin.Command"));
+        assertEquals(Boolean.TRUE, trie.resolve("plugin.COMMAND"));
+    }
+
+    @Test
+    void unmatchedNodesFallBackToTheDefault() {
+        final PermissionTrie trie = PermissionTrie.of(List.of("other.node"));
+        assertTrue(trie.check(Permission.defaultTrue("plugin.command"), false));
+        assertFalse(trie.check(Permission.defaultIfOp("plugin.command"), false));
+        assertTrue(trie.check(Permission.defaultIfOp("plugin.command"), true));
+    }
+
+    @Test
+    void negatedGrantOverridesTheDefault() {
+        final PermissionTrie trie = PermissionTrie.of(List.of("-plugin.command"));
+        assertFalse(trie.check(Permission.defaultTrue("plugin.command"), true));
+    }
+
+}
@@ -0,0 +1,270 @@
+/*
+ * This file is part of Uniform, licensed under the GNU General Public License v3.0.
+ *
+ *  Copyright (c) Tofaa2
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.william278.uniform;
+
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserLaneStrategyTest {
+
+    private final Component rejection = Component.text("Slow down");
+    private final TestCommand command = new TestCommand();
+    private final TestUser user = new TestUser(UUID.randomUUID());
+    private QueueingStrategy delegate;
+    private UserLaneStrategy lanes;
+
+    @BeforeEach
+    void setUp() {
+        delegate = new QueueingStrategy();
+        lanes = new UserLaneStrategy(delegate, 3, rejection);
+    }
+
+    @Test
+    void runsOneExecutionPerUserAtATime() {
+        final List<String> ran = new ArrayList<>();
+        lanes.execute(command, user, () -> ran.add("first"));
+        lanes.execute(command, user, () -> ran.add("second"));
+        assertEquals(1, delegate.queued.size());
+
+        delegate.runNext();
+        assertEquals(List.of("first"), ran);
+        assertEquals(1, delegate.queued.size());
+
+        delegate.runNext();
+        assertEquals(List.of("first", "second"), ran);
+        assertTrue(delegate.queued.isEmpty());
+    }
+
+    @Test
+    void usersWithoutUuidBypassTheirLane() {
+        final TestUser console = new TestUser(null);
+        lanes.execute(command, console, () -> {
+        });
+        lanes.execute(command, console, () -> {
+        });
+        assertEquals(2, delegate.queued.size());
+    }
+
+    @Test
+    void rejectsExecutionsPastTheQueueDepth() {
+        for (int i = 0; i < 3; i++) {
+            lanes.execute(command, user, () -> {
+            });
+        }
+        assertThrows(RejectedExecutionException.class, () -> lanes.execute(command, user, () -> {
+        }));
+        assertEquals(List.of(rejection), user.messages);
+    }
+
+    @Test
+    void failsQueuedExecutionsWhenTheDelegateRejectsTheHead() {
+        final TestTask queued = new TestTask();
+        final QueueingStrategy rejecting = new QueueingStrategy() {
+            private boolean rejected;
+
+            @Override
+            public void execute(@NotNull BaseCommand<?> command, @NotNull CommandUser user, @NotNull Runnable task) {
+                if (rejected) {
+                    super.execute(command, user, task);
+                    return;
+                }
+
+                // Another execution joins the lane while the head is being handed over
+                rejected = true;
+                lanes.execute(command, user, queued);
+                throw new RejectedExecutionException("Delegate is full");
+            }
+        };
+        lanes = new UserLaneStrategy(rejecting, 3, rejection);
+
+        final TestTask head = new TestTask();
+        assertThrows(RejectedExecutionException.class, () -> lanes.execute(command, user, head));
+        assertFalse(head.ran);
+        assertFalse(head.rejected, "The caller fails the head itself");
+        assertFalse(queued.ran);
+        assertTrue(queued.rejected);
+        assertEquals(List.of(rejection), user.messages);
+
+        // The lane was retired, so the user's next execution starts afresh
+        lanes.execute(command, user, () -> {
+        });
+        assertEquals(1, rejecting.queued.size());
+    }
+
+    @Test
+    void drainsAcceptedExecutionsOnTheWorkerWhenTheDelegateRejects() {
+        final TestTask first = new TestTask();
+        final TestTask second = new TestTask();
+        final TestTask third = new TestTask();
+        lanes.execute(command, user, first);
+        lanes.execute(command, user, second);
+        lanes.execute(command, user, third);
+
+        delegate.accepting = false;
+        delegate.runNext();
+        assertTrue(first.ran && second.ran && third.ran);
+        assertFalse(second.rejected || third.rejected);
+        assertTrue(user.messages.isEmpty());
+
+        delegate.accepting = true;
+        lanes.execute(command, user, () -> {
+        });
+        assertEquals(1, delegate.queued.size());
+    }
+
+    @Test
+    void waitsForAsynchronousExecutionsBeforeAdvancing() {
+        final TestTask first = new TestTask(true);
+        final TestTask second = new TestTask();
+        lanes.execute(command, user, first);
+        lanes.execute(command, user, second);
+
+        delegate.runNext();
+        assertTrue(first.ran);
+        assertTrue(delegate.queued.isEmpty(), "The lane must not advance while the first execution is running");
+
+        first.result.complete(1);
+        assertEquals(1, delegate.queued.size());
+        delegate.runNext();
+        assertTrue(second.ran);
+    }
+
+    private static class QueueingStrategy implements ExecutionStrategy {
+        private final Queue<Runnable> queued = new ArrayDeque<>();
+        private boolean accepting = true;
+
+        @Override
+        public void execute(@NotNull BaseCommand<?> command, @NotNull CommandUser user, @NotNull Runnable task) {
+            if (!accepting) {
+                throw new RejectedExecutionException("Delegate is full");
+            }
+            queued.add(task);
+        }
+
+        private void runNext() {
+            final Runnable task = queued.poll();
+            assertNotNull(task);
+            task.run();
+        }
+    }
+
+    private static class TestTask implements ExecutionTask {
+        private final CompletableFuture<Integer> result = new CompletableFuture<>();
+        private final boolean async;
+        private boolean ran;
+        private boolean rejected;
+
+        private TestTask() {
+            this(false);
+        }
+
+        private TestTask(boolean async) {
+            this.async = async;
+        }
+
+        @Override
+        public void run() {
+            ran = true;
+            if (!async) {
+                result.complete(1);
+            }
+        }
+
+        @NotNull
+        @Override
+        public CompletableFuture<?> getResult() {
+            return result;
+        }
+
+        @Override
+        public void reject(@NotNull RejectedExecutionException e) {
+            rejected = true;
+        }
+    }
+
+    private static class TestUser implements CommandUser {
+        private final UUID uuid;
+        private final List<Component> messages = new ArrayList<>();
+
+        private TestUser(@Nullable UUID uuid) {
+            this.uuid = uuid;
+        }
+
+        @NotNull
+        @Override
+        public Audience getAudience() {
+            return new Audience() {
+                @Override
+                public void sendMessage(@NotNull Component message) {
+                    messages.add(message);
+                }
+            };
+        }
+
+        @Nullable
+        @Override
+        public String getName() {
+            return uuid != null ? "user" : null;
+        }
+
+        @Nullable
+        @Override
+        public UUID getUuid() {
+            return uuid;
+        }
+
+        @Override
+        public boolean checkPermission(@NotNull Permission permission) {
+            return true;
+        }
+    }
+
+    private static class TestCommand extends BaseCommand<Object> {
+        private TestCommand() {
+            super("test", List.of());
+        }
+
+        @Override
+        public void addSubCommand(@NotNull Command command) {
+        }
+
+        @Override
+        public Uniform getUniform() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+}
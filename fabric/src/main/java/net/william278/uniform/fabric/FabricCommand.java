@@ -31,11 +31,13 @@ import net.minecraft.util.Identifier;
 import net.minecraft.util.InvalidIdentifierException;
 import net.william278.uniform.BaseCommand;
 import net.william278.uniform.Command;
+import net.william278.uniform.SuggestionIndex;
 import net.william278.uniform.Uniform;
 import net.william278.uniform.element.ArgumentElement;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 @SuppressWarnings("unused")
 public class FabricCommand extends BaseCommand<ServerCommandSource> {
@@ -66,6 +68,7 @@ public class FabricCommand extends BaseCommand<ServerCommandSource> {
     }
 
     public static <T> ArgumentElement<ServerCommandSource, T> registry(@NotNull String name, @NotNull Registry<T> registry) {
+        final AtomicReference<SuggestionIndex> index = new AtomicReference<>();
         return new ArgumentElement<>(name, reader -> {
             String itemId = reader.readString();
             final Identifier id;
@@ -79,8 +82,13 @@ public class FabricCommand extends BaseCommand<ServerCommandSource> {
             }
             return registry.get(id);
         }, (context, builder) -> {
-            registry.getIds().forEach(id -> builder.suggest(id.toString()));
-            return builder.buildFuture();
+            // Built on first use, as mods may still be registering entries when commands are created
+            SuggestionIndex ids = index.get();
+            if (ids == null || ids.size() != registry.size()) {
+                ids = SuggestionIndex.byWords(registry.getIds().stream().map(Identifier::toString).toList(), ':', '_');
+                index.set(ids);
+            }
+            return ids.suggest(builder);
         });
     }
 
@@ -112,6 +120,9 @@ public class FabricCommand extends BaseCommand<ServerCommandSource> {
             command.addPermissions(permissions);
             subCommands.forEach(command::addSubCommand);
             command.setDefaultExecutor(defaultExecutor);
+            command.setExecutionStrategy(executionStrategy);
+            command.setExecutionTimeout(executionTimeout);
+            command.setExecutionPriority(executionPriority);
             command.syntaxes.addAll(syntaxes);
             command.setExecutionScope(executionScope);
             command.setCondition(condition);
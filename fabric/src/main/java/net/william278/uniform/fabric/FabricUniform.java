@@ -23,16 +23,24 @@ package net.william278.uniform.fabric;
 
 import com.google.common.collect.Sets;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.tree.LiteralCommandNode;
 import lombok.Getter;
 import lombok.Setter;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.command.ServerCommandSource;
 import net.william278.uniform.BaseCommand;
 import net.william278.uniform.Command;
 import net.william278.uniform.CommandUser;
+import net.william278.uniform.CommandUserCache;
+import net.william278.uniform.ExecutionStrategy;
+import net.william278.uniform.ExecutionTracker;
+import net.william278.uniform.PermissionCache;
 import net.william278.uniform.Uniform;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Arrays;
 import java.util.Locale;
@@ -57,12 +65,47 @@ public final class FabricUniform implements Uniform {
     @Setter
     Function<Object, CommandUser> commandUserSupplier = (user) -> new FabricCommandUser((ServerCommandSource) user);
 
+    @Getter
+    @Setter
+    ExecutionStrategy executionStrategy = ExecutionStrategy.cached();
+
+    @Getter
+    private final ExecutionTracker executionTracker = new ExecutionTracker();
+
+    // Commands are dispatched with a new ServerCommandSource each time
+    @Getter
+    private final CommandUserCache commandUserCache = CommandUserCache.forTransientSources();
+
+    @Getter
+    private final PermissionCache permissionCache = new PermissionCache();
+
+    @Nullable
+    private MinecraftServer server;
+
+    // Runs on the server thread, which must never be interrupted
+    private final ExecutionStrategy mainThreadStrategy = new ExecutionStrategy() {
+        @Override
+        public void execute(@NotNull BaseCommand<?> command, @NotNull CommandUser user, @NotNull Runnable task) {
+            final MinecraftServer server = FabricUniform.this.server;
+            if (server == null || server.isOnThread()) {
+                task.run();
+                return;
+            }
+            server.execute(task);
+        }
+
+        @Override
+        public boolean isInterruptible() {
+            return false;
+        }
+    };
+
     private FabricUniform(@NotNull String modId) {
         this.modId = modId.toLowerCase(Locale.ENGLISH).replaceAll("[^a-z0-9_-]", "");
         CommandRegistrationCallback.EVENT.register((dispatcher, registry, environment) ->
                 commands.forEach(command -> {
                     final LiteralArgumentBuilder<ServerCommandSource> builder = command.createBuilder();
-                    dispatcher.register(builder);
+                    final LiteralCommandNode<ServerCommandSource> node = dispatcher.register(builder);
 
                     final Set<String> aliases = Sets.newHashSet(command.getAliases());
                     command.getAliases().forEach(a -> aliases.add(modId + ":" + a));
@@ -70,12 +113,18 @@ public final class FabricUniform implements Uniform {
                     aliases.forEach(alias -> dispatcher.register(
                             LiteralArgumentBuilder.<ServerCommandSource>literal(alias)
                                     .requires(builder.getRequirement()).executes(builder.getCommand())
-                                    .redirect(builder.build())
+                                    .redirect(node)
                     ));
                 })
         );
 
-        ServerLifecycleEvents.SERVER_STOPPED.register(server -> shutdown());
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) ->
+                onUserDisconnect(handler.getPlayer().getUuid()));
+        ServerLifecycleEvents.SERVER_STARTING.register(server -> this.server = server);
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            this.server = null;
+            shutdown();
+        });
     }
 
     /**
@@ -89,6 +138,18 @@ public final class FabricUniform implements Uniform {
         return INSTANCE != null ? INSTANCE : (INSTANCE = new FabricUniform(modId));
     }
 
+    /**
+     * Get the strategy for running executors on the server thread
+     *
+     * @return the main thread execution strategy
+     * @since 1.4
+     */
+    @NotNull
+    @Override
+    public ExecutionStrategy getMainThreadStrategy() {
+        return mainThreadStrategy;
+    }
+
     /**
      * Register a command with the server's command manager
      *
@@ -22,6 +22,7 @@
 package net.william278.uniform.paper;
 
 import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.ParseResults;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import com.mojang.brigadier.suggestion.Suggestion;
 import net.kyori.adventure.text.Component;
@@ -34,9 +35,9 @@ import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 @SuppressWarnings("unused")
 public class LegacyPaperCommand extends BaseCommand<CommandSender> {
@@ -65,7 +66,7 @@ public class LegacyPaperCommand extends BaseCommand<CommandSender> {
     }
 
     @NotNull
-    Impl getImpl(@NotNull Uniform uniform) {
+    Impl getImpl(@NotNull PaperUniform uniform) {
         return new Impl(uniform, this);
     }
 
@@ -79,12 +80,16 @@ public class LegacyPaperCommand extends BaseCommand<CommandSender> {
 
         private static final int COMMAND_SUCCESS = com.mojang.brigadier.Command.SINGLE_SUCCESS;
 
-        private final CommandDispatcher<CommandSender> dispatcher = new CommandDispatcher<>();
+        private final PaperUniform uniform;
+        private final CommandDispatcher<CommandSender> dispatcher;
+        private final PrunedTreeCache<CommandSender> prunedTrees;
         private final @Nullable Permission permission;
 
-        public Impl(@NotNull Uniform uniform, @NotNull LegacyPaperCommand command) {
+        public Impl(@NotNull PaperUniform uniform, @NotNull LegacyPaperCommand command) {
             super(command.getName());
-            this.dispatcher.register(command.createBuilder());
+            this.uniform = uniform;
+            this.dispatcher = uniform.getSharedDispatcher().register(command);
+            this.prunedTrees = new PrunedTreeCache<>(command, dispatcher);
             this.permission = command.permission;
 
             // Setup command properties
@@ -98,15 +103,16 @@ public class LegacyPaperCommand extends BaseCommand<CommandSender> {
 
         @NotNull
         private String getUsageText() {
-            return dispatcher.getSmartUsage(dispatcher.getRoot(), Bukkit.getConsoleSender()).values().stream()
-                    .map("/%s"::formatted).collect(Collectors.joining("\n"));
+            return String.join("\n", SharedDispatcher.getUsage(dispatcher, getName(), Bukkit.getConsoleSender()));
         }
 
         @SuppressWarnings("deprecation")
         @Override
         public boolean execute(@NotNull CommandSender commandSender, @NotNull String alias, @NotNull String[] args) {
             try {
-                return dispatcher.execute(getInput(args), commandSender) == COMMAND_SUCCESS;
+                final ParseResults<CommandSender> parse = uniform.getParseCache()
+                        .take(dispatcher, getInput(args), commandSender);
+                return dispatcher.execute(parse) >= COMMAND_SUCCESS;
             } catch (CommandSyntaxException e) {
                 commandSender.sendMessage(Component
                         .translatable("command.context.parse_error", NamedTextColor.RED)
@@ -126,13 +132,18 @@ public class LegacyPaperCommand extends BaseCommand<CommandSender> {
         @Override
         public List<String> tabComplete(@NotNull CommandSender sender, @NotNull String alias, @NotNull String[] args)
                 throws IllegalArgumentException {
-            final String passed = getInput(args);
-            return dispatcher.getCompletionSuggestions(
-                            dispatcher.parse(passed, sender),
+            return complete(sender, getInput(args), uniform.getCompletionTimeout());
+        }
+
+        // Waits at most the timeout, so a slow suggestion provider can't stall the calling thread
+        @NotNull
+        List<String> complete(@NotNull CommandSender sender, @NotNull String passed, @Nullable Duration timeout) {
+            final CommandDispatcher<CommandSender> dispatcher = prunedTrees.getDispatcher(sender);
+            return uniform.getCompletionCache().await(sender, passed, dispatcher.getCompletionSuggestions(
+                            uniform.getParseCache().parse(dispatcher, passed, sender),
                             passed.length() // Spigot API limitation - we can only TAB complete the full text length :(
                     )
-                    .thenApply(suggestions -> suggestions.getList().stream().map(Suggestion::getText).toList())
-                    .join();
+                    .thenApply(suggestions -> suggestions.getList().stream().map(Suggestion::getText).toList()), timeout);
         }
 
         @Override
@@ -176,6 +187,9 @@ public class LegacyPaperCommand extends BaseCommand<CommandSender> {
             command.addPermissions(permissions);
             subCommands.forEach(command::addSubCommand);
             command.setDefaultExecutor(defaultExecutor);
+            command.setExecutionStrategy(executionStrategy);
+            command.setExecutionTimeout(executionTimeout);
+            command.setExecutionPriority(executionPriority);
             command.syntaxes.addAll(syntaxes);
             command.setExecutionScope(executionScope);
             //Condition is not yet implemented in this type of command
@@ -40,6 +40,7 @@ import org.jetbrains.annotations.NotNull;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 import java.util.function.Function;
 
@@ -50,6 +51,11 @@ public class PaperCommand extends BaseCommand<CommandSourceStack> {
             (CommandSourceStack) user
     );
 
+    // Matches material names from the start of any word, as in "log" for OAK_LOG
+    private static final SuggestionIndex MATERIALS = SuggestionIndex.byWords(
+            Arrays.stream(Material.values()).map(Material::name).toList(), '_'
+    );
+
     public PaperCommand(@NotNull Command command) {
         super(command);
     }
@@ -87,10 +93,7 @@ public class PaperCommand extends BaseCommand<CommandSourceStack> {
             }
         }, (context, builder) -> {
             if (builder.getRemainingLowerCase().isEmpty()) return builder.buildFuture();
-            Arrays.stream(Material.values())
-                    .filter(material -> material.name().toLowerCase().contains(builder.getRemainingLowerCase()))
-                    .forEach(material -> builder.suggest(material.name()));
-            return builder.buildFuture();
+            return MATERIALS.suggest(builder);
         });
     }
 
@@ -100,15 +103,27 @@ public class PaperCommand extends BaseCommand<CommandSourceStack> {
             if (playerName.equals("@a")) {
                 return Bukkit.getOnlinePlayers();
             }
-            var player = Bukkit.getPlayer(playerName);
+            var player = PaperUniform.INSTANCE != null ? PaperUniform.INSTANCE.getPlayerNames().get(playerName) : null;
+            if (player == null) {
+                player = Bukkit.getPlayer(playerName);
+            }
             if (player == null) {
                 throw CommandSyntaxException.BUILT_IN_EXCEPTIONS.dispatcherUnknownArgument().createWithContext(reader);
             }
             return List.of(player);
         }, (context, builder) -> {
             builder.suggest("@a");
+            if (PaperUniform.INSTANCE != null) {
+                return PaperUniform.INSTANCE.getPlayerNames().suggest(builder);
+            }
+            final String remaining = builder.getRemainingLowerCase();
             for (Player player : Bukkit.getOnlinePlayers()) {
-                builder.suggest(player.getName());
+                if (builder instanceof BoundedSuggestionsBuilder bounded && bounded.isTruncated()) {
+                    break;
+                }
+                if (player.getName().toLowerCase(Locale.ROOT).startsWith(remaining)) {
+                    builder.suggest(player.getName());
+                }
             }
             return builder.buildFuture();
         });
@@ -143,9 +158,7 @@ public class PaperCommand extends BaseCommand<CommandSourceStack> {
     @SuppressWarnings("unchecked")
     public List<CommandSyntax<CommandSourceStack>> getSyntaxes() {
         return super.getSyntaxes().stream().map(
-            syntax -> new CommandSyntax<>(
-                syntax.condition(),
-                syntax.executor(),
+            syntax -> syntax.withElements(
                 syntax.elements().stream()
                     .filter(e -> e instanceof ArgumentElement)
                     .map(e -> (ArgumentElement<?, ?>) e)
@@ -187,6 +200,9 @@ public class PaperCommand extends BaseCommand<CommandSourceStack> {
             command.addPermissions(permissions);
             subCommands.forEach(command::addSubCommand);
             command.setDefaultExecutor(defaultExecutor);
+            command.setExecutionStrategy(executionStrategy);
+            command.setExecutionTimeout(executionTimeout);
+            command.setExecutionPriority(executionPriority);
             command.syntaxes.addAll(syntaxes);
             command.setExecutionScope(executionScope);
             command.setCondition(condition);
@@ -26,9 +26,14 @@ import net.kyori.adventure.audience.Audience;
 import net.william278.uniform.CommandUser;
 import net.william278.uniform.Permission;
 import org.bukkit.command.ConsoleCommandSender;
+import org.bukkit.permissions.PermissionAttachmentInfo;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
 
 @SuppressWarnings("UnstableApiUsage")
@@ -62,4 +67,23 @@ public record PaperCommandUser(@NotNull CommandSourceStack source) implements Co
             source.getSender().isOp() || source.getSender() instanceof ConsoleCommandSender
         );
     }
+
+    // Resolve every explicitly set permission in one pass, falling back to a lookup for nodes the snapshot lacks
+    // (permission plugins may grant wildcards that aren't listed as effective permissions)
+    @NotNull
+    @Override
+    public BitSet checkPermissions(@NotNull Permission @NotNull [] permissions) {
+        final Map<String, Boolean> effective = new HashMap<>();
+        for (PermissionAttachmentInfo info : source.getSender().getEffectivePermissions()) {
+            effective.put(info.getPermission(), info.getValue());
+        }
+        final BitSet result = new BitSet(permissions.length);
+        for (int i = 0; i < permissions.length; i++) {
+            final Boolean value = effective.get(permissions[i].node().toLowerCase(Locale.ENGLISH));
+            if (value != null ? value : checkPermission(permissions[i])) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
 }
@@ -21,20 +21,42 @@
 
 package net.william278.uniform.paper;
 
+import com.destroystokyo.paper.event.server.AsyncTabCompleteEvent;
 import com.google.common.collect.Sets;
 import lombok.Getter;
 import lombok.Setter;
 import net.william278.uniform.BaseCommand;
 import net.william278.uniform.Command;
 import net.william278.uniform.CommandUser;
+import net.william278.uniform.CommandUserCache;
+import net.william278.uniform.CompletionCache;
+import net.william278.uniform.ExecutionStrategy;
+import net.william278.uniform.ExecutionTracker;
+import net.william278.uniform.ParseCache;
+import net.william278.uniform.PermissionCache;
+import net.william278.uniform.PlayerNameIndex;
+import net.william278.uniform.SharedDispatcher;
 import net.william278.uniform.Uniform;
+import org.bukkit.command.CommandMap;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.server.PluginDisableEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -43,9 +65,10 @@ import java.util.stream.Stream;
  *
  * @since 1.0
  */
-public final class PaperUniform implements Uniform {
+public final class PaperUniform implements Uniform, Listener {
 
     static PaperUniform INSTANCE;
+    private static final boolean FOLIA = isFolia();
 
     private final Set<PaperCommand> commands = Sets.newHashSet();
     private final boolean useModernApi;
@@ -55,6 +78,74 @@ public final class PaperUniform implements Uniform {
     @Setter
     Function<Object, CommandUser> commandUserSupplier;
 
+    @Getter
+    @Setter
+    ExecutionStrategy executionStrategy = ExecutionStrategy.cached();
+
+    // Completions are waited for without a bound unless a timeout, such as CompletionCache.DEFAULT_TIMEOUT, is set
+    @Nullable
+    @Getter
+    @Setter
+    Duration completionTimeout;
+
+    // Legacy commands' suggestion providers and requirements must be safe to run off the server thread to enable this
+    @Getter
+    @Setter
+    boolean asyncCompletion;
+
+    @Getter
+    private final ExecutionTracker executionTracker = new ExecutionTracker();
+
+    // Modern commands are dispatched with a new CommandSourceStack each time
+    @Getter
+    private final CommandUserCache commandUserCache;
+
+    @Getter
+    private final PermissionCache permissionCache = new PermissionCache();
+
+    // Only used by legacy commands
+    @Getter
+    private final ParseCache<CommandSender> parseCache = new ParseCache<>();
+
+    // Only used by legacy commands
+    @Getter
+    private final CompletionCache<CommandSender> completionCache = new CompletionCache<>();
+
+    @Getter
+    private final PlayerNameIndex<Player> playerNames = new PlayerNameIndex<>(Player::getName);
+
+    private final Map<String, LegacyPaperCommand.Impl> legacyCommands = new ConcurrentHashMap<>();
+
+    // Only used by legacy commands; modern commands are registered into the server dispatcher
+    @Getter
+    private final SharedDispatcher<CommandSender> sharedDispatcher = new SharedDispatcher<>();
+
+    // Runs on the server thread, which must never be interrupted
+    private final ExecutionStrategy mainThreadStrategy = new ExecutionStrategy() {
+        @Override
+        public void execute(@NotNull BaseCommand<?> command, @NotNull CommandUser user, @NotNull Runnable task) {
+            // Folia has no main thread and no BukkitScheduler; server-wide state belongs to the global region
+            if (FOLIA) {
+                if (plugin.getServer().isGlobalTickThread()) {
+                    task.run();
+                    return;
+                }
+                plugin.getServer().getGlobalRegionScheduler().execute(plugin, task);
+                return;
+            }
+            if (plugin.getServer().isPrimaryThread()) {
+                task.run();
+                return;
+            }
+            plugin.getServer().getScheduler().runTask(plugin, task);
+        }
+
+        @Override
+        public boolean isInterruptible() {
+            return false;
+        }
+    };
+
     private PaperUniform(@NotNull JavaPlugin plugin) {
         this(plugin, isUseModernApi());
     }
@@ -62,6 +153,9 @@ public final class PaperUniform implements Uniform {
     private PaperUniform(@NotNull JavaPlugin plugin, boolean useModernApi) {
         this.plugin = plugin;
         this.useModernApi = useModernApi;
+        this.commandUserCache = useModernApi ? CommandUserCache.forTransientSources() : new CommandUserCache();
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        this.playerNames.addAll(plugin.getServer().getOnlinePlayers());
         // Modern (1.20.6+) Lifecycle event based Paper Brigadier API
         if (this.useModernApi) {
             this.commandUserSupplier = PaperCommand.USER_SUPPLIER;
@@ -96,6 +190,71 @@ public final class PaperUniform implements Uniform {
         return INSTANCE != null && INSTANCE.useModernApi == useModernApi ? INSTANCE : (INSTANCE = new PaperUniform(plugin, useModernApi));
     }
 
+    /**
+     * Get the strategy for running executors on the server thread
+     *
+     * @return the main thread execution strategy
+     * @since 1.4
+     */
+    @NotNull
+    @Override
+    public ExecutionStrategy getMainThreadStrategy() {
+        return mainThreadStrategy;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(@NotNull PlayerQuitEvent event) {
+        parseCache.invalidate(event.getPlayer());
+        completionCache.invalidate(event.getPlayer());
+        playerNames.remove(event.getPlayer());
+        onUserDisconnect(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerJoin(@NotNull PlayerJoinEvent event) {
+        playerNames.add(event.getPlayer());
+    }
+
+    // Paper completes commands off the server thread through this event, so slow suggestions don't stall the server
+    @EventHandler(ignoreCancelled = true)
+    public void onAsyncTabComplete(@NotNull AsyncTabCompleteEvent event) {
+        if (!asyncCompletion || legacyCommands.isEmpty() || event.isHandled() || !event.isCommand()) {
+            return;
+        }
+        final String buffer = event.getBuffer().startsWith("/") ? event.getBuffer().substring(1) : event.getBuffer();
+        final int space = buffer.indexOf(' ');
+        final LegacyPaperCommand.Impl impl = space < 0 ? null
+                : legacyCommands.get(buffer.substring(0, space).toLowerCase(Locale.ENGLISH));
+        if (impl == null || !impl.testPermissionSilent(event.getSender())) {
+            return;
+        }
+        final String input = impl.getName() + buffer.substring(space);
+        // Synchronous events are still completed on the server thread, so only bound them as usual
+        final Duration timeout = event.isAsynchronous() ? CompletionCache.ASYNC_TIMEOUT : completionTimeout;
+        event.setCompletions(impl.complete(event.getSender(), input, timeout));
+        event.setHandled(true);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginDisable(@NotNull PluginDisableEvent event) {
+        if (event.getPlugin() == plugin) {
+            shutdown();
+            if (INSTANCE == this) {
+                INSTANCE = null;
+            }
+        }
+    }
+
+    // Check if the server is running Folia's regionised threading
+    private static boolean isFolia() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
     // Check if the modern Paper API is available
     private static boolean isUseModernApi() {
         try {
@@ -125,10 +284,21 @@ public final class PaperUniform implements Uniform {
         }
 
         // Register with the legacy API
-        plugin.getServer().getCommandMap().registerAll(
-                plugin.getName().toLowerCase(Locale.ENGLISH).replaceAll("[^a-z0-9_]", ""),
-                s.map(c -> (LegacyPaperCommand) c).map(c -> (org.bukkit.command.Command) c.getImpl(this)).toList()
-        );
+        final String prefix = plugin.getName().toLowerCase(Locale.ENGLISH).replaceAll("[^a-z0-9_]", "");
+        final List<LegacyPaperCommand.Impl> impls = s.map(c -> ((LegacyPaperCommand) c).getImpl(this)).toList();
+        final CommandMap commandMap = plugin.getServer().getCommandMap();
+        commandMap.registerAll(prefix, impls.stream().map(c -> (org.bukkit.command.Command) c).toList());
+
+        // Index the labels each command won, for completing them asynchronously
+        final Map<String, org.bukkit.command.Command> known = commandMap.getKnownCommands();
+        impls.forEach(impl -> Stream.concat(Stream.of(impl.getName()), impl.getAliases().stream()).forEach(label -> {
+            for (String key : List.of(label, "%s:%s".formatted(prefix, label))) {
+                key = key.toLowerCase(Locale.ENGLISH);
+                if (known.get(key) == impl) {
+                    legacyCommands.put(key, impl);
+                }
+            }
+        }));
     }
 
     /**
@@ -146,6 +316,7 @@ public final class PaperUniform implements Uniform {
         }
 
         // Unregister with the legacy API
+        legacyCommands.values().removeIf(impl -> s.contains(impl.getName()));
         final String pluginName = plugin.getName().toLowerCase(Locale.ENGLISH).replaceAll("[^a-z0-9_]", "");
         plugin.getServer().getCommandMap().getKnownCommands()
                 .keySet()
@@ -27,9 +27,12 @@ import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import io.papermc.paper.command.brigadier.argument.CustomArgumentType;
 import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 import org.jetbrains.annotations.NotNull;
 
+// Wrappers of the same type are equal, so wrapped syntaxes that start with the same arguments still share nodes
 @AllArgsConstructor
+@EqualsAndHashCode
 @SuppressWarnings("UnstableApiUsage")
 public class PaperArgumentElement<T> implements CustomArgumentType<T, String> {
 
@@ -28,6 +28,8 @@ import net.kyori.adventure.text.format.NamedTextColor;
 import net.william278.uniform.BaseCommand;
 import net.william278.uniform.Command;
 import net.william278.uniform.Permission;
+import net.william278.uniform.PrunedTreeCache;
+import net.william278.uniform.SharedDispatcher;
 import net.william278.uniform.Uniform;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -40,7 +42,6 @@ import org.spongepowered.api.command.parameter.ArgumentReader;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @SuppressWarnings("unused")
 public class SpongeCommand extends BaseCommand<CommandCause> {
@@ -61,19 +62,21 @@ public class SpongeCommand extends BaseCommand<CommandCause> {
     }
 
     @NotNull
-    Impl getImpl() {
-        return new Impl(this);
+    Impl getImpl(@NotNull SpongeUniform uniform) {
+        return new Impl(uniform, this);
     }
 
     static final class Impl implements Raw {
 
         private static final int COMMAND_SUCCESS = com.mojang.brigadier.Command.SINGLE_SUCCESS;
-        private final CommandDispatcher<CommandCause> dispatcher = new CommandDispatcher<>();
+        private final CommandDispatcher<CommandCause> dispatcher;
+        private final PrunedTreeCache<CommandCause> prunedTrees;
         private final SpongeCommand command;
         private final @Nullable Permission permission;
 
-        public Impl(@NotNull SpongeCommand command) {
-            this.dispatcher.register(command.createBuilder());
+        public Impl(@NotNull SpongeUniform uniform, @NotNull SpongeCommand command) {
+            this.dispatcher = uniform.getSharedDispatcher().register(command);
+            this.prunedTrees = new PrunedTreeCache<>(command, dispatcher);
             this.command = command;
             this.permission = command.permission;
         }
@@ -81,8 +84,9 @@ public class SpongeCommand extends BaseCommand<CommandCause> {
         @Override
         public CommandResult process(CommandCause cause, ArgumentReader.Mutable arguments) throws CommandException {
             try {
-                return dispatcher.execute(arguments.immutable().remaining(), cause) == COMMAND_SUCCESS
-                        ? CommandResult.success()
+                final int result = dispatcher.execute(arguments.immutable().remaining(), cause);
+                return result >= COMMAND_SUCCESS
+                        ? CommandResult.builder().result(result).build()
                         : CommandResult.error(Component.translatable("command.failed", NamedTextColor.RED));
             } catch (CommandSyntaxException e) {
                 throw new CommandException(Component
@@ -96,6 +100,7 @@ public class SpongeCommand extends BaseCommand<CommandCause> {
 
         @Override
         public List<CommandCompletion> complete(CommandCause cause, ArgumentReader.Mutable arguments) throws CommandException {
+            final CommandDispatcher<CommandCause> dispatcher = prunedTrees.getDispatcher(cause);
             return dispatcher.getCompletionSuggestions(
                             dispatcher.parse(arguments.remaining(), cause),
                             arguments.cursor()
@@ -126,8 +131,7 @@ public class SpongeCommand extends BaseCommand<CommandCause> {
 
         @Override
         public Component usage(CommandCause cause) {
-            return Component.text(dispatcher.getSmartUsage(dispatcher.getRoot(), cause)
-                    .values().stream().map("/%s"::formatted).collect(Collectors.joining("\n")));
+            return Component.text(String.join("\n", SharedDispatcher.getUsage(dispatcher, command.getName(), cause)));
         }
 
     }
@@ -26,13 +26,22 @@ import lombok.Setter;
 import net.william278.uniform.BaseCommand;
 import net.william278.uniform.Command;
 import net.william278.uniform.CommandUser;
+import net.william278.uniform.CommandUserCache;
+import net.william278.uniform.ExecutionStrategy;
+import net.william278.uniform.ExecutionTracker;
+import net.william278.uniform.PermissionCache;
+import net.william278.uniform.SharedDispatcher;
 import net.william278.uniform.Uniform;
 import org.jetbrains.annotations.NotNull;
 import org.spongepowered.api.Game;
+import org.spongepowered.api.Server;
 import org.spongepowered.api.command.Command.Raw;
 import org.spongepowered.api.command.CommandCause;
 import org.spongepowered.api.event.Listener;
 import org.spongepowered.api.event.lifecycle.RegisterCommandEvent;
+import org.spongepowered.api.event.lifecycle.StoppingEngineEvent;
+import org.spongepowered.api.event.network.ServerSideConnectionEvent;
+import org.spongepowered.api.scheduler.Task;
 import org.spongepowered.plugin.PluginContainer;
 
 import java.util.Arrays;
@@ -47,13 +56,49 @@ public final class SpongeUniform implements Uniform {
 
     private final Set<SpongeCommand> commands = new HashSet<>();
     private final PluginContainer plugin;
+    private final Game game;
 
     @Getter
     @Setter
     Function<Object, CommandUser> commandUserSupplier = (cause) -> new SpongeCommandUser((CommandCause) cause);
 
+    @Getter
+    @Setter
+    ExecutionStrategy executionStrategy = ExecutionStrategy.cached();
+
+    @Getter
+    private final ExecutionTracker executionTracker = new ExecutionTracker();
+
+    // Commands are dispatched with a new CommandCause each time
+    @Getter
+    private final CommandUserCache commandUserCache = CommandUserCache.forTransientSources();
+
+    @Getter
+    private final PermissionCache permissionCache = new PermissionCache();
+
+    @Getter
+    private final SharedDispatcher<CommandCause> sharedDispatcher = new SharedDispatcher<>();
+
+    // Runs on the server thread, which must never be interrupted
+    private final ExecutionStrategy mainThreadStrategy = new ExecutionStrategy() {
+        @Override
+        public void execute(@NotNull BaseCommand<?> command, @NotNull CommandUser user, @NotNull Runnable task) {
+            if (!game.isServerAvailable() || game.server().onMainThread()) {
+                task.run();
+                return;
+            }
+            game.server().scheduler().submit(Task.builder().plugin(plugin).execute(task).build());
+        }
+
+        @Override
+        public boolean isInterruptible() {
+            return false;
+        }
+    };
+
     private SpongeUniform(@NotNull PluginContainer plugin, @NotNull Game game) {
         this.plugin = plugin;
+        this.game = game;
         game.eventManager().registerListeners(plugin, this);
     }
 
@@ -70,13 +115,35 @@ public final class SpongeUniform implements Uniform {
         return INSTANCE != null ? INSTANCE : (INSTANCE = new SpongeUniform(plugin, game));
     }
 
+    /**
+     * Get the strategy for running executors on the server thread
+     *
+     * @return the main thread execution strategy
+     * @since 1.4
+     */
+    @NotNull
+    @Override
+    public ExecutionStrategy getMainThreadStrategy() {
+        return mainThreadStrategy;
+    }
+
     @Listener
     public void onRegisterCommands(@NotNull RegisterCommandEvent<Raw> event) {
         commands.forEach(command -> event.register(
-                plugin, command.getImpl(), command.getName(), command.getAliases().toArray(String[]::new)
+                plugin, command.getImpl(this), command.getName(), command.getAliases().toArray(String[]::new)
         ));
     }
 
+    @Listener
+    public void onDisconnect(@NotNull ServerSideConnectionEvent.Disconnect event) {
+        onUserDisconnect(event.connection().profile().uniqueId());
+    }
+
+    @Listener
+    public void onServerStopping(@NotNull StoppingEngineEvent<Server> event) {
+        shutdown();
+    }
+
     /**
      * Register a command with the server's command manager
      *
@@ -111,5 +178,4 @@ public final class SpongeUniform implements Uniform {
         this.commands.removeIf(command -> Arrays.stream(commands).anyMatch(c -> command.getName().equals(c)));
     }
 
-
 }
@@ -29,12 +29,15 @@ import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
 import com.velocitypowered.api.proxy.server.RegisteredServer;
 import net.william278.uniform.BaseCommand;
+import net.william278.uniform.BoundedSuggestionsBuilder;
 import net.william278.uniform.Command;
+import net.william278.uniform.PlayerNameIndex;
 import net.william278.uniform.Uniform;
 import net.william278.uniform.element.ArgumentElement;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
+import java.util.Locale;
 
 @SuppressWarnings("unused")
 public class VelocityCommand extends BaseCommand<CommandSource> {
@@ -82,7 +85,9 @@ public class VelocityCommand extends BaseCommand<CommandSource> {
                                                                        @NotNull SuggestionProvider<CommandSource> suggestionProvider) {
         ArgumentType<CommandSource> argumentType = reader -> {
             String s = reader.readUnquotedString();
-            CommandSource source = server.getPlayer(s).orElse(null);
+            final PlayerNameIndex<Player> players = VelocityUniform.INSTANCE != null
+                    ? VelocityUniform.INSTANCE.getPlayerNames() : null;
+            CommandSource source = players != null ? players.get(s) : server.getPlayer(s).orElse(null);
             if (source == null) {
                 throw CommandSyntaxException.BUILT_IN_EXCEPTIONS.dispatcherUnknownArgument().createWithContext(reader);
             }
@@ -93,8 +98,19 @@ public class VelocityCommand extends BaseCommand<CommandSource> {
 
     public static ArgumentElement<CommandSource, CommandSource> source(@NotNull ProxyServer server, @NotNull String name) {
         return source(server, name, (context, builder) -> {
+            final PlayerNameIndex<Player> players = VelocityUniform.INSTANCE != null
+                    ? VelocityUniform.INSTANCE.getPlayerNames() : null;
+            if (players != null) {
+                return players.suggest(builder);
+            }
+            final String remaining = builder.getRemainingLowerCase();
             for (Player source : server.getAllPlayers()) {
-                builder.suggest(source.getUsername());
+                if (builder instanceof BoundedSuggestionsBuilder bounded && bounded.isTruncated()) {
+                    break;
+                }
+                if (source.getUsername().toLowerCase(Locale.ROOT).startsWith(remaining)) {
+                    builder.suggest(source.getUsername());
+                }
             }
             return builder.buildFuture();
         });
@@ -127,6 +143,9 @@ public class VelocityCommand extends BaseCommand<CommandSource> {
             command.addPermissions(permissions);
             subCommands.forEach(command::addSubCommand);
             command.setDefaultExecutor(defaultExecutor);
+            command.setExecutionStrategy(executionStrategy);
+            command.setExecutionTimeout(executionTimeout);
+            command.setExecutionPriority(executionPriority);
             command.syntaxes.addAll(syntaxes);
             command.setExecutionScope(executionScope);
             command.setCondition(condition);
@@ -24,14 +24,26 @@ package net.william278.uniform.velocity;
 import com.velocitypowered.api.command.BrigadierCommand;
 import com.velocitypowered.api.command.CommandManager;
 import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.event.PostOrder;
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
+import com.velocitypowered.api.event.connection.PostLoginEvent;
+import com.velocitypowered.api.event.proxy.ProxyShutdownEvent;
+import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
 import lombok.Getter;
 import lombok.Setter;
 import net.william278.uniform.BaseCommand;
 import net.william278.uniform.Command;
 import net.william278.uniform.CommandUser;
+import net.william278.uniform.CommandUserCache;
+import net.william278.uniform.ExecutionStrategy;
+import net.william278.uniform.ExecutionTracker;
+import net.william278.uniform.PermissionCache;
+import net.william278.uniform.PlayerNameIndex;
 import net.william278.uniform.Uniform;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Arrays;
 import java.util.function.Function;
@@ -47,11 +59,27 @@ public final class VelocityUniform implements Uniform {
     static VelocityUniform INSTANCE;
 
     private final ProxyServer server;
+    private boolean listening;
 
     @Getter
     @Setter
     Function<Object, CommandUser> commandUserSupplier = (user) -> new VelocityCommandUser((CommandSource) user);
 
+    @Getter
+    @Setter
+    ExecutionStrategy executionStrategy = ExecutionStrategy.cached();
+
+    @Getter
+    private final ExecutionTracker executionTracker = new ExecutionTracker();
+
+    @Getter
+    private final CommandUserCache commandUserCache = new CommandUserCache();
+
+    @Getter
+    private final PermissionCache permissionCache = new PermissionCache();
+
+    private final PlayerNameIndex<Player> playerNames = new PlayerNameIndex<>(Player::getUsername);
+
     private VelocityUniform(@NotNull ProxyServer server) {
         this.server = server;
     }
@@ -68,6 +96,58 @@ public final class VelocityUniform implements Uniform {
         return INSTANCE != null ? INSTANCE : (INSTANCE = new VelocityUniform(server));
     }
 
+    /**
+     * Get the VelocityUniform instance for registering commands, listening to proxy events on behalf of the plugin
+     * <p>
+     * Passing the plugin lets Uniform react to players disconnecting, e.g. to cancel their in-flight executions, and
+     * shut down its executors along with the proxy
+     *
+     * @param server The server instance
+     * @param plugin The plugin instance
+     * @return The VelocityUniform instance
+     * @since 1.4
+     */
+    @NotNull
+    public static VelocityUniform getInstance(@NotNull ProxyServer server, @NotNull Object plugin) {
+        final VelocityUniform uniform = getInstance(server);
+        if (!uniform.listening) {
+            server.getEventManager().register(plugin, uniform);
+            uniform.playerNames.addAll(server.getAllPlayers());
+            uniform.listening = true;
+        }
+        return uniform;
+    }
+
+    @Subscribe(order = PostOrder.LAST)
+    public void onDisconnect(@NotNull DisconnectEvent event) {
+        playerNames.remove(event.getPlayer());
+        onUserDisconnect(event.getPlayer().getUniqueId());
+    }
+
+    @Subscribe(order = PostOrder.FIRST)
+    public void onPostLogin(@NotNull PostLoginEvent event) {
+        playerNames.add(event.getPlayer());
+    }
+
+    /**
+     * Get the index of online player names, if it is kept up to date
+     * <p>
+     * The index is only maintained when Uniform listens to proxy events, i.e. if the instance was created with
+     * {@link #getInstance(ProxyServer, Object)}
+     *
+     * @return the player name index, or {@code null} if it isn't maintained
+     * @since 1.4
+     */
+    @Nullable
+    public PlayerNameIndex<Player> getPlayerNames() {
+        return listening ? playerNames : null;
+    }
+
+    @Subscribe(order = PostOrder.LAST)
+    public void onProxyShutdown(@NotNull ProxyShutdownEvent event) {
+        shutdown();
+    }
+
     /**
      * Register a command with the server's command manager
      *